@@ -0,0 +1,119 @@
+package monitor.ui;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import oshi.hardware.CentralProcessor.LogicalProcessor;
+
+/**
+ * Heatmap source showing core x time from a {@link CpuCoreHistory}, with rows ordered and
+ * grouped according to the processor topology.
+ */
+public class CpuCoreHeatmap implements HeatmapCanvas.Source {
+    public enum Grouping {
+        NONE("Logical CPU"),
+        SOCKET("Socket"),
+        NUMA_NODE("NUMA node"),
+        SMT("Physical core");
+
+        private final String label;
+
+        Grouping(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    private final CpuCoreHistory history;
+    private final List<LogicalProcessor> processors;
+    private int[] rowToCore;
+    private boolean[] groupStart;
+    private String[] groupLabels;
+    private int metric = CpuCoreHistory.TOTAL;
+
+    public CpuCoreHeatmap(CpuCoreHistory history, List<LogicalProcessor> processors) {
+        this.history = history;
+        this.processors = processors;
+        setGrouping(Grouping.NONE);
+    }
+
+    public void setMetric(int metric) {
+        this.metric = metric;
+    }
+
+    public void setGrouping(Grouping grouping) {
+        List<LogicalProcessor> ordered = new ArrayList<>(processors);
+        Comparator<LogicalProcessor> byNumber = Comparator.comparingInt(LogicalProcessor::getProcessorNumber);
+        switch (grouping) {
+            case SOCKET:
+                ordered.sort(Comparator.comparingInt(LogicalProcessor::getPhysicalPackageNumber).thenComparing(byNumber));
+                break;
+            case NUMA_NODE:
+                ordered.sort(Comparator.comparingInt(LogicalProcessor::getNumaNode).thenComparing(byNumber));
+                break;
+            case SMT:
+                ordered.sort(Comparator.comparingInt(LogicalProcessor::getPhysicalPackageNumber)
+                        .thenComparingInt(LogicalProcessor::getPhysicalProcessorNumber)
+                        .thenComparing(byNumber));
+                break;
+            default:
+                ordered.sort(byNumber);
+                break;
+        }
+
+        int rows = Math.min(ordered.size(), history.getCoreCount());
+        rowToCore = new int[rows];
+        groupStart = new boolean[rows];
+        groupLabels = new String[rows];
+        String previousKey = null;
+        for (int row = 0; row < rows; row++) {
+            LogicalProcessor lp = ordered.get(row);
+            rowToCore[row] = lp.getProcessorNumber();
+            String key;
+            switch (grouping) {
+                case SOCKET: key = "Socket " + lp.getPhysicalPackageNumber(); break;
+                case NUMA_NODE: key = "Node " + lp.getNumaNode(); break;
+                case SMT: key = "Core " + lp.getPhysicalPackageNumber() + "/" + lp.getPhysicalProcessorNumber(); break;
+                default: key = "CPU " + lp.getProcessorNumber(); break;
+            }
+            groupStart[row] = !key.equals(previousKey);
+            groupLabels[row] = key;
+            previousKey = key;
+        }
+    }
+
+    public String describe(int row, int column) {
+        int core = rowToCore[row];
+        int age = columns() - 1 - column;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("CPU %d (%s) %ds ago:", core, groupLabels[row], age));
+        for (int m = 0; m < CpuCoreHistory.METRIC_NAMES.length; m++) {
+            sb.append(String.format(" %s %.1f%%", CpuCoreHistory.METRIC_NAMES[m], history.get(m, core, age)));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int rows() { return rowToCore.length; }
+
+    @Override
+    public int columns() { return history.getCapacity(); }
+
+    @Override
+    public double value(int row, int column) {
+        // Newest sample is drawn in the right-most column
+        return history.get(metric, rowToCore[row], columns() - 1 - column);
+    }
+
+    @Override
+    public double maxValue() { return 100; }
+
+    @Override
+    public boolean isGroupStart(int row) { return groupStart[row]; }
+
+    @Override
+    public String groupLabel(int row) { return groupLabels[row]; }
+}
@@ -0,0 +1,96 @@
+package monitor.ui;
+
+import oshi.hardware.CentralProcessor.TickType;
+
+/**
+ * Per-core CPU history kept in flat primitive ring buffers (one slot per core per sample).
+ * Written from the resource refresh task and read by the heatmap on the FX thread.
+ */
+public class CpuCoreHistory {
+    public static final int TOTAL = 0;
+    public static final int USER = 1;
+    public static final int SYSTEM = 2;
+    public static final int IOWAIT = 3;
+    public static final int STEAL = 4;
+    public static final String[] METRIC_NAMES = {"Total", "User", "System", "IOWait", "Steal"};
+
+    private final int coreCount;
+    private final int capacity;
+    // values[metric][sample * coreCount + core], stored as percentages
+    private final float[][] values;
+    private final long[][] previousTicks;
+    private boolean hasPrevious;
+    private int head = -1;
+    private int size;
+
+    public CpuCoreHistory(int coreCount, int capacity) {
+        this.coreCount = coreCount;
+        this.capacity = capacity;
+        this.values = new float[METRIC_NAMES.length][coreCount * capacity];
+        this.previousTicks = new long[coreCount][TickType.values().length];
+    }
+
+    public int getCoreCount() { return coreCount; }
+    public int getCapacity() { return capacity; }
+
+    public synchronized int size() { return size; }
+
+    /**
+     * Records one sample from the tick arrays returned by {@code getProcessorCpuLoadTicks}.
+     * The first call only primes the previous ticks.
+     */
+    public synchronized void record(long[][] ticks) {
+        int cores = Math.min(coreCount, ticks.length);
+        if (hasPrevious) {
+            head = (head + 1) % capacity;
+            int base = head * coreCount;
+            for (int core = 0; core < cores; core++) {
+                long[] cur = ticks[core];
+                long[] prev = previousTicks[core];
+                long user = delta(cur, prev, TickType.USER) + delta(cur, prev, TickType.NICE);
+                long system = delta(cur, prev, TickType.SYSTEM) + delta(cur, prev, TickType.IRQ)
+                        + delta(cur, prev, TickType.SOFTIRQ);
+                long iowait = delta(cur, prev, TickType.IOWAIT);
+                long steal = delta(cur, prev, TickType.STEAL);
+                long idle = delta(cur, prev, TickType.IDLE);
+                long total = user + system + iowait + steal + idle;
+                int slot = base + core;
+                if (total > 0) {
+                    float scale = 100f / total;
+                    values[USER][slot] = user * scale;
+                    values[SYSTEM][slot] = system * scale;
+                    values[IOWAIT][slot] = iowait * scale;
+                    values[STEAL][slot] = steal * scale;
+                    values[TOTAL][slot] = (user + system + steal) * scale;
+                } else {
+                    for (float[] metric : values) {
+                        metric[slot] = 0f;
+                    }
+                }
+            }
+            if (size < capacity) size++;
+        }
+        for (int core = 0; core < cores; core++) {
+            System.arraycopy(ticks[core], 0, previousTicks[core], 0, previousTicks[core].length);
+        }
+        hasPrevious = true;
+    }
+
+    /**
+     * Returns the value of {@code metric} for {@code core}, {@code age} samples before the latest one.
+     */
+    public synchronized float get(int metric, int core, int age) {
+        if (age >= size) return 0f;
+        int sample = (head - age + capacity) % capacity;
+        return values[metric][sample * coreCount + core];
+    }
+
+    public synchronized float latest(int metric, int core) {
+        return get(metric, core, 0);
+    }
+
+    private static long delta(long[] cur, long[] prev, TickType type) {
+        int i = type.getIndex();
+        return Math.max(0L, cur[i] - prev[i]);
+    }
+}
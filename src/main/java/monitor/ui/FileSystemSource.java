@@ -0,0 +1,49 @@
+package monitor.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import oshi.SystemInfo;
+import oshi.software.os.FileSystem;
+import oshi.software.os.OSFileStore;
+
+/**
+ * Mounted file stores and their usage. Disk usage moves slowly, so this runs every few seconds
+ * and is among the first sources slowed down when the monitor is over budget.
+ */
+public class FileSystemSource implements MetricSource<List<SystemInfoTable.FileSystemInfo>> {
+    public static final String NAME = "File systems";
+
+    private final FileSystem fileSystem;
+
+    public FileSystemSource(SystemInfo si) {
+        this.fileSystem = si.getOperatingSystem().getFileSystem();
+    }
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public long getIntervalMillis() { return 5000; }
+
+    @Override
+    public Priority getPriority() { return Priority.LOW; }
+
+    @Override
+    public List<SystemInfoTable.FileSystemInfo> collect() {
+        List<SystemInfoTable.FileSystemInfo> filesystems = new ArrayList<>();
+        for (OSFileStore fs : fileSystem.getFileStores()) {
+            long totalSpace = fs.getTotalSpace();
+            long usableSpace = fs.getUsableSpace();
+            filesystems.add(new SystemInfoTable.FileSystemInfo(
+                fs.getMount(),
+                fs.getName(),
+                fs.getType(),
+                totalSpace,
+                totalSpace - usableSpace,
+                usableSpace
+            ));
+        }
+        return filesystems;
+    }
+}
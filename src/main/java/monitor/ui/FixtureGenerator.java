@@ -0,0 +1,531 @@
+package monitor.ui;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Writes a synthetic {@code proc/} and {@code sys/} tree for {@link ProcPaths} to point at, so
+ * the collectors can be run against machines far larger than the one at hand: tens of
+ * thousands of processes, hundreds of cores, NUMA nodes and a thousand mounts.
+ *
+ * <p>{@link #advance(double)} moves the tree forward in time the way a busy host would:
+ * processes exit and start, new PIDs wrap around {@code pid_max} and reuse the PIDs of exited
+ * processes with a new start time, and the 32-bit counters in {@code /proc/interrupts} wrap.
+ * Only the files that changed are rewritten. Network rates are not simulated: OSHI reads them
+ * from the host's {@code /sys}, which the root does not cover.
+ *
+ * <pre>
+ * java -cp ... monitor.ui.FixtureGenerator /tmp/fixture --processes=50000 --cores=512 --mounts=1000
+ * java -cp ... monitor.ui.FixtureGenerator /tmp/fixture --live   # keep the tree changing every second
+ * java -Dmonitor.root=/tmp/fixture ...
+ * </pre>
+ */
+public class FixtureGenerator {
+    private static final int HZ = 100;
+    private static final long PAGE_KB = 4;
+    private static final long U32 = 1L << 32;
+    private static final String[] NAMES = {
+        "java", "postgres", "nginx", "python3", "node", "redis-server", "sshd", "bash", "kworker",
+        "systemd-journal", "containerd-shim", "envoy", "chrome", "gcc", "make", "sleep", "cron"
+    };
+    private static final String[] SOFTIRQS = {
+        "HI", "TIMER", "NET_TX", "NET_RX", "BLOCK", "IRQ_POLL", "TASKLET", "SCHED", "HRTIMER", "RCU"
+    };
+
+    private static class Proc {
+        int pid;
+        int ppid;
+        String name;
+        long startTicks;
+        long utime;
+        long stime;
+        long rssPages;
+        long vsizeKb;
+        int threads;
+        boolean busy;
+        int sockets;
+        long socketInode;
+        long readBytes;
+        long writeBytes;
+        long[] nodePages;
+    }
+
+    private final Path root;
+    private final Path proc;
+    private final int processCount;
+    private final int cores;
+    private final int mounts;
+    private final int nodes;
+    private final int pidMax;
+    private final Random random;
+
+    private final Map<Integer, Proc> processes = new HashMap<>();
+    private final boolean[] pidUsed;
+    private final ArrayDeque<Integer> exitedPids = new ArrayDeque<>();
+    private int nextPid = 2;
+    private long nextInode = 100_000;
+    private long forks;
+
+    private final long bootSeconds = System.currentTimeMillis() / 1000 - 86_400;
+    private double uptimeSeconds = 86_400;
+    // user, idle, system, iowait per core
+    private final long[][] cpuTicks;
+    private long contextSwitches = 5_000_000_000L;
+    private final List<String> irqNames = new ArrayList<>();
+    private int nextIrq = 24;
+    private final List<long[]> irqCounts = new ArrayList<>();
+    private final long[][] softirqCounts;
+    private final long[] pressureTotals = new long[5];
+    private int generation;
+
+    public FixtureGenerator(Path root, int processCount, int cores, int mounts, int nodes, long seed) {
+        this.root = root;
+        this.proc = root.resolve("proc");
+        this.processCount = processCount;
+        this.cores = cores;
+        this.mounts = mounts;
+        this.nodes = Math.max(1, Math.min(nodes, cores));
+        this.pidMax = Math.max(32_768, processCount * 2);
+        this.random = new Random(seed);
+        this.pidUsed = new boolean[pidMax + 1];
+        this.cpuTicks = new long[cores][4];
+        this.softirqCounts = new long[SOFTIRQS.length][cores];
+    }
+
+    public Path getRoot() { return root; }
+
+    /**
+     * Replaces anything under the root with a fresh tree.
+     */
+    public void generate() throws IOException {
+        deleteTree(proc);
+        deleteTree(root.resolve("sys"));
+        Files.createDirectories(proc);
+
+        for (long[] ticks : cpuTicks) {
+            ticks[0] = uptimeSeconds(0.2);
+            ticks[1] = uptimeSeconds(0.75);
+            ticks[2] = uptimeSeconds(0.05);
+        }
+        for (int i = 0; i < 48; i++) addIrq();
+
+        Proc init = spawn(1, 0, "systemd");
+        init.startTicks = 1;
+        for (int i = 1; i < processCount; i++) spawn(allocatePid(), 1 + random.nextInt(Math.min(i, 200)), null);
+
+        writeSystemFiles();
+        writeMounts();
+        writeNodes();
+        for (Proc p : processes.values()) writeProcess(p, true);
+        Files.createSymbolicLink(proc.resolve("self"), Paths.get("1"));
+    }
+
+    /**
+     * Moves the tree {@code seconds} forward: about 1% of processes exit and are replaced every
+     * second, a tenth of them accumulate CPU time and I/O, and every counter advances.
+     */
+    public void advance(double seconds) throws IOException {
+        generation++;
+        uptimeSeconds += seconds;
+
+        int churn = Math.max(1, (int) (processCount * 0.01 * seconds));
+        List<Proc> victims = new ArrayList<>(churn);
+        for (Proc p : processes.values()) {
+            if (p.pid != 1 && random.nextInt(processCount) < churn) victims.add(p);
+            if (victims.size() == churn) break;
+        }
+        for (Proc p : victims) {
+            processes.remove(p.pid);
+            pidUsed[p.pid] = false;
+            exitedPids.add(p.pid);
+            if (exitedPids.size() > 1024) exitedPids.poll();
+            deleteTree(proc.resolve(String.valueOf(p.pid)));
+        }
+        for (int i = 0; i < victims.size(); i++) {
+            int pid = random.nextInt(4) == 0 && !exitedPids.isEmpty() ? exitedPids.poll() : allocatePid();
+            pidUsed[pid] = true;
+            writeProcess(spawn(pid, 1, null), true);
+        }
+
+        long ticks = (long) (seconds * HZ);
+        for (Proc p : processes.values()) {
+            if (!p.busy) continue;
+            p.utime += random.nextInt((int) ticks + 1);
+            p.stime += random.nextInt((int) ticks / 4 + 1);
+            p.readBytes += random.nextInt(1 << 20);
+            p.writeBytes += random.nextInt(1 << 18);
+            p.rssPages = Math.max(16, p.rssPages + random.nextInt(64) - 32);
+            writeProcess(p, false);
+        }
+
+        for (long[] t : cpuTicks) {
+            long busy = random.nextInt((int) ticks + 1);
+            t[0] += busy * 3 / 4;
+            t[2] += busy / 4;
+            t[3] += random.nextInt(3);
+            t[1] += ticks - busy;
+        }
+        contextSwitches += (long) (seconds * cores * 20_000);
+        if (generation % 30 == 0) {
+            // A device coming or going changes the IRQ set, not just the counts
+            if (random.nextBoolean() && irqNames.size() > 8) {
+                int victim = random.nextInt(irqNames.size() - 4);
+                irqNames.remove(victim);
+                irqCounts.remove(victim);
+            } else {
+                addIrq();
+            }
+        }
+        for (long[] counts : irqCounts) {
+            int hot = random.nextInt(cores);
+            for (int c = 0; c < cores; c++) {
+                counts[c] = (counts[c] + (long) ((c == hot ? 50_000 : random.nextInt(200)) * seconds)) % U32;
+            }
+        }
+        for (long[] counts : softirqCounts) {
+            for (int c = 0; c < cores; c++) counts[c] = (counts[c] + random.nextInt(5_000)) % U32;
+        }
+        for (int i = 0; i < pressureTotals.length; i++) pressureTotals[i] += random.nextInt(100_000);
+
+        writeSystemFiles();
+        writeNodes();
+    }
+
+    private int allocatePid() {
+        // Like the kernel: climb to pid_max, then wrap around and take the next free PID
+        for (int tries = 0; tries < pidMax; tries++) {
+            int pid = nextPid++;
+            if (nextPid > pidMax) nextPid = 300;
+            if (!pidUsed[pid]) {
+                pidUsed[pid] = true;
+                exitedPids.remove(pid);
+                return pid;
+            }
+        }
+        throw new IllegalStateException("No free PIDs below " + pidMax);
+    }
+
+    private Proc spawn(int pid, int ppid, String name) {
+        Proc p = new Proc();
+        p.pid = pid;
+        p.ppid = processes.containsKey(ppid) ? ppid : 1;
+        p.name = name != null ? name : NAMES[random.nextInt(NAMES.length)];
+        p.startTicks = (long) (uptimeSeconds * HZ) - random.nextInt(HZ);
+        p.busy = random.nextInt(10) == 0;
+        p.threads = p.busy ? 1 + random.nextInt(64) : 1 + random.nextInt(4);
+        p.rssPages = 256 + random.nextInt(64 * 1024);
+        p.vsizeKb = p.rssPages * PAGE_KB * (2 + random.nextInt(8));
+        p.sockets = random.nextInt(10) == 0 ? 1 + random.nextInt(8) : 0;
+        p.socketInode = nextInode;
+        nextInode += p.sockets;
+        p.nodePages = new long[nodes];
+        int home = random.nextInt(nodes);
+        for (int n = 0; n < nodes; n++) {
+            p.nodePages[n] = n == home ? p.rssPages * 9 / 10 : p.rssPages / 10 / Math.max(1, nodes - 1);
+        }
+        pidUsed[pid] = true;
+        processes.put(pid, p);
+        forks++;
+        return p;
+    }
+
+    private void addIrq() {
+        irqNames.add(String.valueOf(nextIrq++));
+        long[] counts = new long[cores];
+        for (int c = 0; c < cores; c++) counts[c] = U32 - 1 - random.nextInt(1_000_000);
+        irqCounts.add(counts);
+    }
+
+    private long uptimeSeconds(double share) {
+        return (long) (uptimeSeconds * HZ * share);
+    }
+
+    private void writeProcess(Proc p, boolean created) throws IOException {
+        Path dir = proc.resolve(String.valueOf(p.pid));
+        String stat = stat(p);
+        if (created) {
+            Files.createDirectories(dir.resolve("task").resolve(String.valueOf(p.pid)));
+            Files.createDirectories(dir.resolve("fd"));
+            write(dir.resolve("comm"), p.name + "\n");
+            write(dir.resolve("cmdline"), "/usr/bin/" + p.name + "\0--worker\0" + p.pid + "\0");
+            write(dir.resolve("environ"), "PATH=/usr/bin\0HOME=/\0");
+            write(dir.resolve("cgroup"), "0::/system.slice/" + p.name + ".service\n");
+            write(dir.resolve("maps"), "00400000-00452000 r-xp 00000000 08:02 173521 /usr/bin/" + p.name + "\n");
+            write(dir.resolve("numa_maps"), numaMaps(p));
+            write(dir.resolve("status"), status(p));
+            Files.createSymbolicLink(dir.resolve("exe"), Paths.get("/usr/bin/" + p.name));
+            Path fd = dir.resolve("fd");
+            for (int i = 0; i < 3; i++) Files.createSymbolicLink(fd.resolve(String.valueOf(i)), Paths.get("/dev/null"));
+            for (int i = 0; i < p.sockets; i++) {
+                Files.createSymbolicLink(fd.resolve(String.valueOf(3 + i)), Paths.get("socket:[" + (p.socketInode + i) + "]"));
+            }
+        }
+        write(dir.resolve("stat"), stat);
+        write(dir.resolve("task").resolve(String.valueOf(p.pid)).resolve("stat"), stat);
+        write(dir.resolve("statm"), (p.vsizeKb / PAGE_KB) + " " + p.rssPages + " " + p.rssPages / 4 + " 100 0 " + p.rssPages / 2 + " 0\n");
+        write(dir.resolve("io"), "rchar: " + p.readBytes * 2 + "\nwchar: " + p.writeBytes * 2
+                + "\nsyscr: " + p.readBytes / 4096 + "\nsyscw: " + p.writeBytes / 4096
+                + "\nread_bytes: " + p.readBytes + "\nwrite_bytes: " + p.writeBytes + "\ncancelled_write_bytes: 0\n");
+        long rssKb = p.rssPages * PAGE_KB;
+        write(dir.resolve("smaps_rollup"), "00400000-7ffff000 ---p 00000000 00:00 0 [rollup]\n"
+                + "Rss: " + rssKb + " kB\nPss: " + rssKb * 3 / 4 + " kB\nShared_Clean: " + rssKb / 4
+                + " kB\nPrivate_Clean: " + rssKb / 8 + " kB\nPrivate_Dirty: " + rssKb / 2 + " kB\nSwap: 0 kB\n");
+        if (!created) write(dir.resolve("status"), status(p));
+    }
+
+    private String stat(Proc p) {
+        char state = p.busy ? 'R' : 'S';
+        return p.pid + " (" + p.name + ") " + state + " " + p.ppid + " " + p.pid + " " + p.pid + " 0 -1 4194560 "
+                + "1000 0 10 0 " + p.utime + " " + p.stime + " 0 0 20 0 " + p.threads + " 0 " + p.startTicks
+                + " " + p.vsizeKb * 1024 + " " + p.rssPages
+                + " 18446744073709551615 1 1 0 0 0 0 0 0 0 0 0 0 17 " + (p.pid % cores)
+                + " 0 0 0 0 0 0 0 0 0 0 0 0 0\n";
+    }
+
+    private String status(Proc p) {
+        int home = 0;
+        for (int n = 1; n < nodes; n++) if (p.nodePages[n] > p.nodePages[home]) home = n;
+        return "Name:\t" + p.name + "\nUmask:\t0022\nState:\t" + (p.busy ? "R (running)" : "S (sleeping)")
+                + "\nTgid:\t" + p.pid + "\nNgid:\t0\nPid:\t" + p.pid + "\nPPid:\t" + p.ppid + "\nTracerPid:\t0"
+                + "\nUid:\t0\t0\t0\t0\nGid:\t0\t0\t0\t0\nFDSize:\t64\nGroups:\t\n"
+                + "VmPeak:\t" + p.vsizeKb + " kB\nVmSize:\t" + p.vsizeKb + " kB\nVmRSS:\t" + p.rssPages * PAGE_KB
+                + " kB\nThreads:\t" + p.threads + "\nCpus_allowed_list:\t0-" + (cores - 1)
+                + "\nMems_allowed_list:\t0-" + (nodes - 1)
+                + "\nvoluntary_ctxt_switches:\t" + p.utime * 3 + "\nnonvoluntary_ctxt_switches:\t" + p.stime + "\n";
+    }
+
+    private String numaMaps(Proc p) {
+        StringBuilder sb = new StringBuilder("7f0000000000 default anon=").append(p.rssPages).append(" dirty=").append(p.rssPages);
+        for (int n = 0; n < nodes; n++) {
+            if (p.nodePages[n] > 0) sb.append(" N").append(n).append('=').append(p.nodePages[n]);
+        }
+        return sb.append(" kernelpagesize_kB=").append(PAGE_KB).append('\n').toString();
+    }
+
+    private void writeSystemFiles() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        long[] total = new long[4];
+        for (long[] t : cpuTicks) for (int i = 0; i < 4; i++) total[i] += t[i];
+        sb.append("cpu  ").append(total[0]).append(" 0 ").append(total[2]).append(' ').append(total[1])
+                .append(' ').append(total[3]).append(" 0 0 0 0 0\n");
+        for (int c = 0; c < cores; c++) {
+            long[] t = cpuTicks[c];
+            sb.append("cpu").append(c).append(' ').append(t[0]).append(" 0 ").append(t[2]).append(' ')
+                    .append(t[1]).append(' ').append(t[3]).append(" 0 0 0 0 0\n");
+        }
+        int running = 0;
+        for (Proc p : processes.values()) if (p.busy) running++;
+        sb.append("intr 0\nctxt ").append(contextSwitches).append("\nbtime ").append(bootSeconds)
+                .append("\nprocesses ").append(forks).append("\nprocs_running ").append(Math.min(running, cores))
+                .append("\nprocs_blocked ").append(random.nextInt(4)).append("\nsoftirq 0\n");
+        write(proc.resolve("stat"), sb.toString());
+
+        write(proc.resolve("uptime"), String.format(Locale.ROOT, "%.2f %.2f%n", uptimeSeconds, uptimeSeconds * cores * 0.75));
+        double load = Math.min(running, cores) * (0.9 + random.nextDouble() * 0.2);
+        write(proc.resolve("loadavg"), String.format(Locale.ROOT, "%.2f %.2f %.2f %d/%d %d%n", load, load * 0.95, load * 0.9,
+                Math.min(running, cores), processes.size(), nextPid - 1));
+
+        long totalKb = (long) cores * 2 * 1024 * 1024;
+        long usedKb = 0;
+        for (Proc p : processes.values()) usedKb += p.rssPages * PAGE_KB;
+        usedKb = Math.min(usedKb, totalKb * 9 / 10);
+        long cachedKb = (totalKb - usedKb) / 3;
+        write(proc.resolve("meminfo"), "MemTotal:       " + totalKb + " kB\nMemFree:        " + (totalKb - usedKb - cachedKb)
+                + " kB\nMemAvailable:   " + (totalKb - usedKb) + " kB\nBuffers:        " + cachedKb / 20
+                + " kB\nCached:         " + cachedKb + " kB\nSwapCached:     0 kB\nActive:         " + usedKb / 2
+                + " kB\nInactive:       " + usedKb / 2 + " kB\nAnonPages:      " + usedKb + " kB\nMapped:         " + cachedKb / 4
+                + " kB\nShmem:          " + cachedKb / 10 + " kB\nSlab:           " + totalKb / 100
+                + " kB\nSReclaimable:   " + totalKb / 200 + " kB\nSUnreclaim:     " + totalKb / 200
+                + " kB\nKernelStack:    " + processes.size() * 16 + " kB\nPageTables:     " + usedKb / 500
+                + " kB\nSwapTotal:      0 kB\nSwapFree:       0 kB\nDirty:          " + random.nextInt(100_000)
+                + " kB\nWriteback:      0 kB\nCommitLimit:    " + totalKb / 2 + " kB\nCommitted_AS:   " + usedKb * 2
+                + " kB\nVmallocTotal:   34359738367 kB\nHugePages_Total:       0\nHugePages_Free:        0\nHugepagesize:       2048 kB\n");
+
+        Files.createDirectories(proc.resolve("pressure"));
+        String[] pressure = { "cpu", "memory", "io" };
+        for (int i = 0; i < pressure.length; i++) {
+            double avg = random.nextDouble() * (i == 0 ? 40 : 5);
+            String line = String.format(Locale.ROOT, "avg10=%.2f avg60=%.2f avg300=%.2f total=", avg, avg * 0.8, avg * 0.6);
+            write(proc.resolve("pressure").resolve(pressure[i]), "some " + line + pressureTotals[i] + "\nfull "
+                    + line + pressureTotals[Math.min(i + 2, pressureTotals.length - 1)] / 2 + "\n");
+        }
+
+        Files.createDirectories(proc.resolve("sys/kernel"));
+        Files.createDirectories(proc.resolve("sys/fs"));
+        write(proc.resolve("sys/kernel/pid_max"), pidMax + "\n");
+        write(proc.resolve("sys/kernel/threads-max"), (pidMax * 4) + "\n");
+        write(proc.resolve("sys/fs/file-nr"), (processes.size() * 8) + "\t0\t9223372036854775807\n");
+        write(proc.resolve("sys/fs/file-max"), "9223372036854775807\n");
+
+        writeCpuInfo();
+        writeInterrupts();
+        writeSockets();
+    }
+
+    private void writeCpuInfo() throws IOException {
+        if (Files.exists(proc.resolve("cpuinfo"))) return;
+        StringBuilder sb = new StringBuilder();
+        int perNode = (cores + nodes - 1) / nodes;
+        for (int c = 0; c < cores; c++) {
+            sb.append("processor\t: ").append(c).append("\nvendor_id\t: GenuineIntel\ncpu family\t: 6\nmodel\t\t: 143")
+                    .append("\nmodel name\t: Synthetic Xeon @ 2.00GHz\ncpu MHz\t\t: 2000.000\nphysical id\t: ").append(c / perNode)
+                    .append("\nsiblings\t: ").append(perNode).append("\ncore id\t\t: ").append(c % perNode)
+                    .append("\ncpu cores\t: ").append(perNode).append("\nflags\t\t: fpu sse sse2 avx avx2\n\n");
+        }
+        write(proc.resolve("cpuinfo"), sb.toString());
+    }
+
+    private void writeInterrupts() throws IOException {
+        StringBuilder sb = new StringBuilder(cores * 12 * (irqNames.size() + 4));
+        sb.append("     ");
+        for (int c = 0; c < cores; c++) sb.append(String.format(Locale.ROOT, " %10s", "CPU" + c));
+        sb.append('\n');
+        for (int i = 0; i < irqNames.size(); i++) {
+            sb.append(String.format(Locale.ROOT, "%4s:", irqNames.get(i)));
+            for (long count : irqCounts.get(i)) sb.append(String.format(Locale.ROOT, " %10d", count));
+            sb.append("  IR-PCI-MSI ").append(irqNames.get(i)).append("-edge      nvme0q").append(i).append('\n');
+        }
+        sb.append(" LOC:");
+        for (long[] t : cpuTicks) sb.append(String.format(Locale.ROOT, " %10d", (t[0] + t[1] + t[2]) % U32));
+        sb.append("   Local timer interrupts\n");
+        write(proc.resolve("interrupts"), sb.toString());
+
+        sb.setLength(0);
+        sb.append("          ");
+        for (int c = 0; c < cores; c++) sb.append(String.format(Locale.ROOT, " %10s", "CPU" + c));
+        sb.append('\n');
+        for (int s = 0; s < SOFTIRQS.length; s++) {
+            sb.append(String.format(Locale.ROOT, "%10s:", SOFTIRQS[s]));
+            for (long count : softirqCounts[s]) sb.append(String.format(Locale.ROOT, " %10d", count));
+            sb.append('\n');
+        }
+        write(proc.resolve("softirqs"), sb.toString());
+    }
+
+    private void writeSockets() throws IOException {
+        Path net = proc.resolve("net");
+        Files.createDirectories(net);
+        String header = "  sl  local_address rem_address   st tx_queue rx_queue tr tm->when retrnsmt   uid  timeout inode\n";
+        StringBuilder tcp = new StringBuilder(header);
+        StringBuilder udp = new StringBuilder(header);
+        int tcpLines = 0, udpLines = 0;
+        for (Proc p : processes.values()) {
+            for (int i = 0; i < p.sockets; i++) {
+                boolean isTcp = i % 4 != 3;
+                StringBuilder target = isTcp ? tcp : udp;
+                int sl = isTcp ? tcpLines++ : udpLines++;
+                target.append(String.format(Locale.ROOT, "%4d: 0100007F:%04X 00000000:0000 %s 00000000:00000000 00:00000000 00000000     0        0 %d 1 0000000000000000 100 0 0 10 0%n",
+                        sl, 1024 + (p.pid + i) % 60000, isTcp ? "0A" : "07", p.socketInode + i));
+            }
+        }
+        // A few TIME_WAIT entries with inode 0, as on a real host
+        for (int i = 0; i < 16; i++) {
+            tcp.append(String.format(Locale.ROOT, "%4d: 0100007F:%04X 0100007F:1F90 06 00000000:00000000 03:00000100 00000000     0        0 0 3 0000000000000000%n", tcpLines++, 40000 + i));
+        }
+        write(net.resolve("tcp"), tcp.toString());
+        write(net.resolve("udp"), udp.toString());
+        write(net.resolve("tcp6"), header);
+        write(net.resolve("udp6"), header);
+    }
+
+    private void writeMounts() throws IOException {
+        StringBuilder sb = new StringBuilder("/dev/vda1 / ext4 rw,relatime 0 0\nproc /proc proc rw,nosuid,nodev,noexec 0 0\n");
+        for (int i = 0; i < mounts; i++) {
+            switch (i % 4) {
+                case 0: sb.append("/dev/nvme").append(i / 64).append("n1p").append(i % 64 + 1).append(" /data/vol").append(i).append(" xfs rw,noatime 0 0\n"); break;
+                case 1: sb.append("overlay /var/lib/containers/").append(i).append("/merged overlay rw,relatime 0 0\n"); break;
+                case 2: sb.append("tmpfs /run/user/").append(1000 + i).append(" tmpfs rw,nosuid,nodev 0 0\n"); break;
+                default: sb.append("server:/export/").append(i).append(" /mnt/nfs").append(i).append(" nfs4 rw,relatime 0 0\n");
+            }
+        }
+        write(proc.resolve("mounts"), sb.toString());
+    }
+
+    private void writeNodes() throws IOException {
+        Path nodeRoot = root.resolve("sys/devices/system/node");
+        int perNode = (cores + nodes - 1) / nodes;
+        long totalKb = (long) cores * 2 * 1024 * 1024 / nodes;
+        long[] usedPages = new long[nodes];
+        for (Proc p : processes.values()) for (int n = 0; n < nodes; n++) usedPages[n] += p.nodePages[n];
+        for (int n = 0; n < nodes; n++) {
+            Path dir = nodeRoot.resolve("node" + n);
+            Files.createDirectories(dir);
+            int first = n * perNode;
+            write(dir.resolve("cpulist"), first + "-" + Math.min(cores - 1, first + perNode - 1) + "\n");
+            long usedKb = Math.min(totalKb * 9 / 10, usedPages[n] * PAGE_KB);
+            write(dir.resolve("meminfo"), "Node " + n + " MemTotal:       " + totalKb + " kB\nNode " + n + " MemFree:        "
+                    + (totalKb - usedKb) + " kB\nNode " + n + " MemUsed:        " + usedKb + " kB\nNode " + n + " FilePages:      "
+                    + usedKb / 5 + " kB\nNode " + n + " AnonPages:      " + usedKb * 4 / 5 + " kB\n");
+            long hits = (long) (uptimeSeconds * 1_000_000);
+            write(dir.resolve("numastat"), "numa_hit " + hits + "\nnuma_miss " + hits / 50 + "\nnuma_foreign " + hits / 60
+                    + "\ninterleave_hit 1000\nlocal_node " + hits * 49 / 50 + "\nother_node " + hits / 50 + "\n");
+        }
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void deleteTree(Path path) throws IOException {
+        if (!Files.exists(path, java.nio.file.LinkOption.NOFOLLOW_LINKS)) return;
+        if (Files.isDirectory(path, java.nio.file.LinkOption.NOFOLLOW_LINKS)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) deleteTree(child);
+            }
+        }
+        Files.delete(path);
+    }
+
+    /**
+     * Parses {@code --name=value} options after the positional arguments.
+     */
+    static Map<String, String> parseOptions(String[] args, int from) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : Arrays.copyOfRange(args, from, args.length)) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + arg);
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    static FixtureGenerator fromOptions(Path root, Map<String, String> options) {
+        return new FixtureGenerator(root,
+                Integer.parseInt(options.getOrDefault("processes", "50000")),
+                Integer.parseInt(options.getOrDefault("cores", "512")),
+                Integer.parseInt(options.getOrDefault("mounts", "1000")),
+                Integer.parseInt(options.getOrDefault("nodes", "8")),
+                Long.parseLong(options.getOrDefault("seed", "1")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: FixtureGenerator <dir> [--processes=50000] [--cores=512] [--mounts=1000] [--nodes=8] [--seed=1] [--live]");
+            System.exit(2);
+        }
+        Map<String, String> options = parseOptions(args, 1);
+        FixtureGenerator generator = fromOptions(Paths.get(args[0]), options);
+        long start = System.nanoTime();
+        generator.generate();
+        System.out.printf("Wrote %s in %.1f s%n", generator.getRoot(), (System.nanoTime() - start) / 1e9);
+        if (options.containsKey("live")) {
+            System.out.println("Advancing every second; run with -Dmonitor.root=" + generator.getRoot());
+            while (true) {
+                Thread.sleep(1000);
+                generator.advance(1.0);
+            }
+        }
+    }
+}
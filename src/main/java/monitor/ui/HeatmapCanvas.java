@@ -0,0 +1,117 @@
+package monitor.ui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Canvas that paints a row x column matrix of values as colored cells.
+ * Rows can be split into labelled groups, which are drawn with a separator line.
+ */
+public class HeatmapCanvas extends Canvas {
+    public interface Source {
+        int rows();
+        int columns();
+        double value(int row, int column);
+        double maxValue();
+        boolean isGroupStart(int row);
+        String groupLabel(int row);
+    }
+
+    private static final int PALETTE_SIZE = 101;
+    private static final Color[] PALETTE = new Color[PALETTE_SIZE];
+    private static final double LABEL_WIDTH = 70;
+
+    static {
+        // Same green -> yellow -> orange -> red ramp used by the old core table
+        for (int i = 0; i < PALETTE_SIZE; i++) {
+            double t = i / (double) (PALETTE_SIZE - 1);
+            if (t < 0.4) PALETTE[i] = Color.web("#4caf50").interpolate(Color.web("#ffeb3b"), t / 0.4);
+            else if (t < 0.7) PALETTE[i] = Color.web("#ffeb3b").interpolate(Color.web("#ff9800"), (t - 0.4) / 0.3);
+            else PALETTE[i] = Color.web("#ff9800").interpolate(Color.web("#f44336"), (t - 0.7) / 0.3);
+        }
+    }
+
+    private Source source;
+
+    public HeatmapCanvas(double width, double height) {
+        super(width, height);
+        widthProperty().addListener(o -> redraw());
+        heightProperty().addListener(o -> redraw());
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+        redraw();
+    }
+
+    public Source getSource() { return source; }
+
+    @Override
+    public boolean isResizable() { return true; }
+
+    @Override
+    public double prefWidth(double height) { return getWidth(); }
+
+    @Override
+    public double prefHeight(double width) { return getHeight(); }
+
+    /**
+     * Maps a point on the canvas to a row index, or -1 if it falls outside the cells.
+     */
+    public int rowAt(double y) {
+        if (source == null || source.rows() == 0) return -1;
+        int row = (int) (y / (getHeight() / source.rows()));
+        return row >= 0 && row < source.rows() ? row : -1;
+    }
+
+    public int columnAt(double x) {
+        if (source == null || source.columns() == 0 || x < LABEL_WIDTH) return -1;
+        int column = (int) ((x - LABEL_WIDTH) / ((getWidth() - LABEL_WIDTH) / source.columns()));
+        return column >= 0 && column < source.columns() ? column : -1;
+    }
+
+    public void redraw() {
+        GraphicsContext g = getGraphicsContext2D();
+        double width = getWidth();
+        double height = getHeight();
+        g.setFill(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        if (source == null) return;
+
+        int rows = source.rows();
+        int columns = source.columns();
+        if (rows == 0 || columns == 0) return;
+
+        double cellHeight = height / rows;
+        double cellWidth = (width - LABEL_WIDTH) / columns;
+        double max = source.maxValue() > 0 ? source.maxValue() : 1;
+
+        for (int row = 0; row < rows; row++) {
+            double y = row * cellHeight;
+            for (int column = 0; column < columns; column++) {
+                double v = source.value(row, column);
+                int idx = (int) Math.round(Math.min(1.0, Math.max(0.0, v / max)) * (PALETTE_SIZE - 1));
+                g.setFill(PALETTE[idx]);
+                // Overdraw by a pixel so sub-pixel cells do not leave gaps
+                g.fillRect(LABEL_WIDTH + column * cellWidth, y, cellWidth + 1, cellHeight + 1);
+            }
+        }
+
+        g.setStroke(Color.BLACK);
+        g.setFill(Color.BLACK);
+        g.setFont(Font.font(10));
+        double lastLabelY = -20;
+        for (int row = 0; row < rows; row++) {
+            if (!source.isGroupStart(row)) continue;
+            double y = row * cellHeight;
+            if (row > 0) g.strokeLine(0, y, width, y);
+            // Skip labels that would overlap the previous one
+            if (y - lastLabelY >= 11) {
+                g.fillText(source.groupLabel(row), 2, y + 10);
+                lastLabelY = y;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package monitor.ui;
+
+/**
+ * Heatmap source showing interrupt source x CPU from the latest {@link InterruptSource}
+ * snapshot. Hardware IRQs and softirqs form two groups. Colors are log-scaled, so a queue
+ * pinned to one core still stands out next to the local timer on every core.
+ */
+public class InterruptHeatmap implements HeatmapCanvas.Source {
+    private InterruptSource.InterruptSnapshot snapshot;
+    private double logMax = 1;
+
+    public void setSnapshot(InterruptSource.InterruptSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.logMax = Math.log1p(snapshot.maxRate);
+    }
+
+    public String describe(int row, int column) {
+        if (snapshot == null) return "";
+        return String.format("%s (%s) on CPU %d: %.0f/s", snapshot.labels[row], snapshot.descriptions[row],
+                snapshot.cpuIds[column], snapshot.rate(row, column));
+    }
+
+    @Override
+    public int rows() { return snapshot == null ? 0 : snapshot.getRows(); }
+
+    @Override
+    public int columns() { return snapshot == null ? 0 : snapshot.getColumns(); }
+
+    @Override
+    public double value(int row, int column) {
+        return Math.log1p(snapshot.rate(row, column));
+    }
+
+    @Override
+    public double maxValue() { return logMax; }
+
+    @Override
+    public boolean isGroupStart(int row) {
+        return row == 0 || row == snapshot.getSoftirqStart();
+    }
+
+    @Override
+    public String groupLabel(int row) {
+        return row < snapshot.getSoftirqStart() ? "IRQ" : "Softirq";
+    }
+}
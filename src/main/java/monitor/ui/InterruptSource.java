@@ -0,0 +1,403 @@
+package monitor.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-core interrupt and softirq rates from {@code /proc/interrupts} and {@code /proc/softirqs},
+ * for checking IRQ affinity and RPS/RFS spreading: which cores take a NIC's queues, and
+ * whether NET_RX work follows them.
+ *
+ * <p>Both files are a header of CPU columns followed by one row per source. The row keys and
+ * column layout are kept between samples; a sample only checks each line's key against the
+ * cached one and parses the counters in place. The layout is rebuilt, with strings, only when
+ * a device comes or goes or a CPU goes offline.
+ */
+public class InterruptSource implements MetricSource<InterruptSource.InterruptSnapshot> {
+    public static final String NAME = "Interrupts";
+    private static final int TOP_SOURCES = 20;
+    // The kernel keeps these counters as unsigned int
+    private static final long U32 = 1L << 32;
+
+    public static class IrqInfo {
+        private final String name;
+        private final String irq;
+        private final String description;
+        private final double perSec;
+        private final int busiestCpu;
+        private final double busiestShare;
+        private final int activeCpus;
+
+        public IrqInfo(String name, String irq, String description, double perSec, int busiestCpu,
+                       double busiestShare, int activeCpus) {
+            this.name = name;
+            this.irq = irq;
+            this.description = description;
+            this.perSec = perSec;
+            this.busiestCpu = busiestCpu;
+            this.busiestShare = busiestShare;
+            this.activeCpus = activeCpus;
+        }
+
+        public String getName() { return name; }
+        /** The row key: an IRQ number, an architecture row such as LOC, or a softirq name. */
+        public String getIrq() { return irq; }
+        public String getDescription() { return description; }
+        public double getPerSec() { return perSec; }
+        public int getBusiestCpu() { return busiestCpu; }
+        /** Share of this source's rate handled by its busiest CPU, in percent. */
+        public double getBusiestShare() { return busiestShare; }
+        public int getActiveCpus() { return activeCpus; }
+    }
+
+    /**
+     * Rates of every source on every CPU: hardware IRQ rows first, then softirq rows from
+     * {@link #getSoftirqStart()}. Immutable, so the FX thread can paint it while the next one
+     * is collected.
+     */
+    public static class InterruptSnapshot {
+        final int[] cpuIds;
+        final String[] labels;
+        final String[] descriptions;
+        final int softirqStart;
+        final double[] rates;
+        final double maxRate;
+        final List<IrqInfo> top;
+        final int layoutChanges;
+
+        public InterruptSnapshot(int[] cpuIds, String[] labels, String[] descriptions, int softirqStart,
+                                 double[] rates, double maxRate, List<IrqInfo> top, int layoutChanges) {
+            this.cpuIds = cpuIds;
+            this.labels = labels;
+            this.descriptions = descriptions;
+            this.softirqStart = softirqStart;
+            this.rates = rates;
+            this.maxRate = maxRate;
+            this.top = top;
+            this.layoutChanges = layoutChanges;
+        }
+
+        public int getRows() { return labels.length; }
+        public int getColumns() { return cpuIds.length; }
+        public int getSoftirqStart() { return softirqStart; }
+        public double rate(int row, int column) { return rates[row * cpuIds.length + column]; }
+    }
+
+    /**
+     * One counter file with its cached layout and the previous sample's counts.
+     */
+    private static final class CounterFile {
+        final String path;
+        final ProcFileReader reader = new ProcFileReader(16 * 1024);
+
+        byte[] header = new byte[0];
+        int[] cpuIds = new int[0];
+        // Every line's key, and the matrix row it feeds or -1 for lines that are not per CPU
+        String[] lineKeys = new String[0];
+        int[] lineRows = new int[0];
+        String[] keys = new String[0];
+        String[] descriptions = new String[0];
+        long[] counts = new long[0];
+        long[] previous = new long[0];
+        boolean[] hasPrevious = new boolean[0];
+        int layoutChanges;
+
+        CounterFile(String path) {
+            this.path = path;
+        }
+
+        int rows() { return keys.length; }
+        int columns() { return cpuIds.length; }
+
+        /**
+         * Reads the file into {@link #counts}. Returns false if it cannot be read.
+         */
+        boolean read() {
+            if (!reader.read(path)) return false;
+            byte[] b = reader.buffer();
+            int length = reader.length();
+            int headerEnd = reader.indexOf((byte) '\n', 0);
+            if (headerEnd < 0) return false;
+
+            if (headerEnd == header.length && equalsAt(b, 0, header) && readRows(b, length, headerEnd + 1)) return true;
+            relayout(b, length, headerEnd);
+            return readRows(b, length, headerEnd + 1);
+        }
+
+        /**
+         * Fast path: every line must carry the cached key, in the cached order.
+         */
+        private boolean readRows(byte[] b, int length, int pos) {
+            int columns = cpuIds.length;
+            int line = 0;
+            while (pos < length) {
+                int lineEnd = reader.indexOf((byte) '\n', pos);
+                if (lineEnd < 0) lineEnd = length;
+                int start = pos;
+                while (start < lineEnd && b[start] == ' ') start++;
+                if (start < lineEnd) {
+                    if (line >= lineKeys.length) return false;
+                    String key = lineKeys[line];
+                    int colon = start + key.length();
+                    if (colon >= lineEnd || b[colon] != ':' || !reader.matches(start, key)) return false;
+                    int row = lineRows[line];
+                    if (row >= 0) parseCounts(b, colon + 1, lineEnd, counts, row * columns, columns);
+                    line++;
+                }
+                pos = lineEnd + 1;
+            }
+            return line == lineKeys.length;
+        }
+
+        /**
+         * Slow path: rebuilds keys, labels and columns from scratch, carrying over the previous
+         * counts of sources that are still there so their rates do not restart.
+         */
+        private void relayout(byte[] b, int length, int headerEnd) {
+            layoutChanges++;
+            header = Arrays.copyOf(b, headerEnd);
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i + 3 < headerEnd; i++) {
+                if (b[i] == 'C' && b[i + 1] == 'P' && b[i + 2] == 'U' && b[i + 3] >= '0' && b[i + 3] <= '9') {
+                    int id = 0;
+                    i += 3;
+                    while (i < headerEnd && b[i] >= '0' && b[i] <= '9') id = id * 10 + (b[i++] - '0');
+                    ids.add(id);
+                }
+            }
+            int columns = ids.size();
+            int[] newCpuIds = ids.stream().mapToInt(Integer::intValue).toArray();
+
+            List<String> lineKeyList = new ArrayList<>();
+            List<Integer> lineRowList = new ArrayList<>();
+            List<String> keyList = new ArrayList<>();
+            List<String> descriptionList = new ArrayList<>();
+            long[] scratch = new long[columns];
+            int pos = headerEnd + 1;
+            while (pos < length) {
+                int lineEnd = reader.indexOf((byte) '\n', pos);
+                if (lineEnd < 0) lineEnd = length;
+                int start = pos;
+                while (start < lineEnd && b[start] == ' ') start++;
+                int colon = start;
+                while (colon < lineEnd && b[colon] != ':') colon++;
+                if (start < lineEnd && colon < lineEnd) {
+                    String key = reader.string(start, colon);
+                    int parsed = parseCounts(b, colon + 1, lineEnd, scratch, 0, columns);
+                    lineKeyList.add(key);
+                    // ERR and MIS carry a single system-wide count
+                    if (parsed == columns && columns > 0) {
+                        lineRowList.add(keyList.size());
+                        keyList.add(key);
+                        descriptionList.add(description(b, colon + 1, lineEnd, columns));
+                    } else {
+                        lineRowList.add(-1);
+                    }
+                }
+                pos = lineEnd + 1;
+            }
+
+            Map<String, Integer> oldRows = new HashMap<>();
+            for (int r = 0; r < keys.length; r++) oldRows.put(keys[r], r);
+            int rows = keyList.size();
+            long[] newPrevious = new long[rows * columns];
+            boolean[] newHasPrevious = new boolean[rows];
+            boolean sameColumns = Arrays.equals(newCpuIds, cpuIds);
+            for (int r = 0; r < rows && sameColumns; r++) {
+                Integer old = oldRows.get(keyList.get(r));
+                if (old == null || !hasPrevious[old]) continue;
+                System.arraycopy(previous, old * columns, newPrevious, r * columns, columns);
+                newHasPrevious[r] = true;
+            }
+
+            cpuIds = newCpuIds;
+            lineKeys = lineKeyList.toArray(new String[0]);
+            lineRows = lineRowList.stream().mapToInt(Integer::intValue).toArray();
+            keys = keyList.toArray(new String[0]);
+            descriptions = descriptionList.toArray(new String[0]);
+            counts = new long[rows * columns];
+            previous = newPrevious;
+            hasPrevious = newHasPrevious;
+        }
+
+        /**
+         * Turns this read's counts into per-second rates and keeps them for the next one.
+         */
+        void rates(double elapsedSeconds, double[] into, int offset) {
+            int columns = cpuIds.length;
+            for (int r = 0; r < keys.length; r++) {
+                int base = r * columns;
+                if (hasPrevious[r] && elapsedSeconds > 0) {
+                    for (int c = 0; c < columns; c++) {
+                        long delta = counts[base + c] - previous[base + c];
+                        // Going from the top half of the 32-bit range to the bottom half is a wrap.
+                        // Any other decrease is a restart, e.g. an IRQ number freed and reused by
+                        // another device, and that interval counts as zero
+                        if (delta < 0) {
+                            boolean wrapped = previous[base + c] >= U32 / 2 && counts[base + c] < U32 / 2;
+                            delta = wrapped ? delta + U32 : 0;
+                        }
+                        into[offset + base + c] = delta / elapsedSeconds;
+                    }
+                }
+                hasPrevious[r] = true;
+            }
+            System.arraycopy(counts, 0, previous, 0, counts.length);
+        }
+
+        /**
+         * Parses up to {@code max} counters after a row key, stopping at the first token that is
+         * not a number, where the chip and device description starts.
+         */
+        private static int parseCounts(byte[] b, int pos, int lineEnd, long[] into, int offset, int max) {
+            int n = 0;
+            while (n < max) {
+                while (pos < lineEnd && b[pos] == ' ') pos++;
+                if (pos >= lineEnd || b[pos] < '0' || b[pos] > '9') break;
+                long value = 0;
+                while (pos < lineEnd && b[pos] >= '0' && b[pos] <= '9') value = value * 10 + (b[pos++] - '0');
+                if (pos < lineEnd && b[pos] != ' ') break;
+                into[offset + n++] = value;
+            }
+            return n;
+        }
+
+        private static String description(byte[] b, int pos, int lineEnd, int columns) {
+            for (int n = 0; n < columns; n++) {
+                while (pos < lineEnd && b[pos] == ' ') pos++;
+                while (pos < lineEnd && b[pos] != ' ') pos++;
+            }
+            while (pos < lineEnd && b[pos] == ' ') pos++;
+            return new String(b, pos, lineEnd - pos, java.nio.charset.StandardCharsets.UTF_8).trim().replaceAll("\\s+", " ");
+        }
+
+        private static boolean equalsAt(byte[] b, int from, byte[] expected) {
+            for (int i = 0; i < expected.length; i++) {
+                if (b[from + i] != expected[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    private final CounterFile interrupts = new CounterFile("/proc/interrupts");
+    private final CounterFile softirqs = new CounterFile("/proc/softirqs");
+    private long previousNanos;
+    private String[] labels = new String[0];
+    private String[] descriptions = new String[0];
+    private int labelledInterruptLayout = -1;
+    private int labelledSoftirqLayout = -1;
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public long getIntervalMillis() { return 1000; }
+
+    @Override
+    public Priority getPriority() { return Priority.NORMAL; }
+
+    @Override
+    public InterruptSnapshot collect() {
+        boolean haveInterrupts = interrupts.read();
+        boolean haveSoftirqs = softirqs.read();
+        long now = System.nanoTime();
+        double elapsedSeconds = previousNanos > 0 ? (now - previousNanos) / 1e9 : 0;
+        previousNanos = now;
+
+        int columns = haveInterrupts ? interrupts.columns() : haveSoftirqs ? softirqs.columns() : 0;
+        int[] cpuIds = haveInterrupts ? interrupts.cpuIds : haveSoftirqs ? softirqs.cpuIds : new int[0];
+        int hardRows = haveInterrupts ? interrupts.rows() : 0;
+        int softRows = haveSoftirqs ? softirqs.rows() : 0;
+        double[] rates = new double[(hardRows + softRows) * columns];
+        if (haveInterrupts) interrupts.rates(elapsedSeconds, rates, 0);
+        if (haveSoftirqs && !haveInterrupts) {
+            softirqs.rates(elapsedSeconds, rates, 0);
+        } else if (haveSoftirqs) {
+            // softirqs lists every possible CPU, interrupts only the online ones
+            double[] softRates = new double[softRows * softirqs.columns()];
+            softirqs.rates(elapsedSeconds, softRates, 0);
+            int[] toColumn = columnMap(softirqs.cpuIds, cpuIds);
+            for (int r = 0; r < softRows; r++) {
+                for (int c = 0; c < toColumn.length; c++) {
+                    if (toColumn[c] >= 0) rates[(hardRows + r) * columns + toColumn[c]] = softRates[r * toColumn.length + c];
+                }
+            }
+        }
+        updateLabels(hardRows, softRows);
+
+        double maxRate = 0;
+        List<IrqInfo> all = new ArrayList<>(hardRows + softRows);
+        for (int r = 0; r < hardRows + softRows; r++) {
+            double total = 0, busiest = 0;
+            int busiestColumn = 0, active = 0;
+            for (int c = 0; c < columns; c++) {
+                double v = rates[r * columns + c];
+                total += v;
+                if (v > 0) active++;
+                if (v > busiest) {
+                    busiest = v;
+                    busiestColumn = c;
+                }
+            }
+            maxRate = Math.max(maxRate, busiest);
+            if (total <= 0) continue;
+            boolean soft = r >= hardRows;
+            all.add(new IrqInfo(labels[r], soft ? softirqs.keys[r - hardRows] : interrupts.keys[r], descriptions[r],
+                    total, cpuIds[busiestColumn], busiest * 100.0 / total, active));
+        }
+        all.sort((a, b) -> Double.compare(b.getPerSec(), a.getPerSec()));
+        List<IrqInfo> top = all.size() > TOP_SOURCES ? new ArrayList<>(all.subList(0, TOP_SOURCES)) : all;
+
+        return new InterruptSnapshot(cpuIds, labels, descriptions, hardRows, rates, maxRate, top,
+                interrupts.layoutChanges + softirqs.layoutChanges);
+    }
+
+    private static int[] columnMap(int[] from, int[] to) {
+        int maxId = 0;
+        for (int id : to) maxId = Math.max(maxId, id);
+        int[] columnOfId = new int[maxId + 1];
+        Arrays.fill(columnOfId, -1);
+        for (int c = 0; c < to.length; c++) columnOfId[to[c]] = c;
+        int[] map = new int[from.length];
+        for (int c = 0; c < from.length; c++) map[c] = from[c] <= maxId ? columnOfId[from[c]] : -1;
+        return map;
+    }
+
+    /**
+     * Display names only change with the layout, so they are rebuilt only then.
+     */
+    private void updateLabels(int hardRows, int softRows) {
+        int interruptLayout = hardRows > 0 ? interrupts.layoutChanges : -1;
+        int softirqLayout = softRows > 0 ? softirqs.layoutChanges : -1;
+        if (interruptLayout == labelledInterruptLayout && softirqLayout == labelledSoftirqLayout
+                && labels.length == hardRows + softRows) {
+            return;
+        }
+        labelledInterruptLayout = interruptLayout;
+        labelledSoftirqLayout = softirqLayout;
+        String[] newLabels = new String[hardRows + softRows];
+        String[] newDescriptions = new String[hardRows + softRows];
+        for (int r = 0; r < hardRows; r++) {
+            String key = interrupts.keys[r];
+            String description = interrupts.descriptions[r];
+            newDescriptions[r] = description;
+            if (Character.isDigit(key.charAt(0))) {
+                // Numbered IRQs end with the device or queue name, e.g. "... eth0-TxRx-3"
+                int space = description.lastIndexOf(' ');
+                newLabels[r] = description.isEmpty() ? key : description.substring(space + 1);
+            } else {
+                // Architecture rows such as LOC, RES and TLB describe themselves
+                newLabels[r] = key;
+            }
+        }
+        for (int r = 0; r < softRows; r++) {
+            newLabels[hardRows + r] = softirqs.keys[r];
+            newDescriptions[hardRows + r] = "softirq";
+        }
+        labels = newLabels;
+        descriptions = newDescriptions;
+    }
+}
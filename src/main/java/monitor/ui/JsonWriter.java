@@ -0,0 +1,135 @@
+package monitor.ui;
+
+/**
+ * Minimal streaming JSON builder for the web backend, so the app does not need a JSON library.
+ * Commas between members are inserted automatically.
+ */
+public class JsonWriter {
+    private final StringBuilder sb;
+    private boolean needsComma;
+
+    public JsonWriter() {
+        this(1024);
+    }
+
+    public JsonWriter(int capacity) {
+        sb = new StringBuilder(capacity);
+    }
+
+    public JsonWriter beginObject() {
+        separator();
+        sb.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        sb.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separator();
+        sb.append('[');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        sb.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separator();
+        quote(name);
+        sb.append(':');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separator();
+        if (value == null) {
+            sb.append("null");
+        } else {
+            quote(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        separator();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            sb.append('0');
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separator();
+        sb.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separator();
+        sb.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Appends an already serialized JSON value as-is.
+     */
+    public JsonWriter raw(String json) {
+        separator();
+        sb.append(json);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter field(String name, String value) { return name(name).value(value); }
+    public JsonWriter field(String name, double value) { return name(name).value(value); }
+    public JsonWriter field(String name, long value) { return name(name).value(value); }
+    public JsonWriter field(String name, boolean value) { return name(name).value(value); }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+
+    private void separator() {
+        if (needsComma) sb.append(',');
+    }
+
+    private void quote(String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,465 @@
+package monitor.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads HotSpot's performance counters from {@code /tmp/hsperfdata_<user>/<pid>}, the file
+ * every JVM keeps memory-mapped for jstat. The file is mapped read-only once per JVM; its
+ * entry table is walked once to find the offsets of the counters we show, and after that a
+ * sample is a handful of 8-byte reads from the mapping. Nothing attaches to the JVM and
+ * nothing is forked.
+ *
+ * <p>The files live in world-writable {@code /tmp} and their owner can rewrite or truncate them
+ * at any time, so every offset taken from a file is checked against its entry and the mapping
+ * before it is used, and all reads go through a bounds-checked {@link MappedByteBuffer}. A
+ * file that shrinks while mapped is dropped before it is read again; should it shrink between
+ * that check and a read, the fault surfaces as an {@link InternalError} instead of a crash.
+ *
+ * <p>Mappings are unmapped in {@link #endSample()} for JVMs that were not seen in the current
+ * refresh, so an exited JVM's file is not held open past the next refresh. Instances are not
+ * thread-safe; {@link ProcessSource} owns one.
+ */
+public class JvmPerfReader {
+    private static final String TMP = "/tmp";
+    private static final String DIR_PREFIX = "hsperfdata_";
+    private static final int MAGIC = 0xcafec0c0;
+    // How often /tmp itself is listed for new hsperfdata_<user> directories
+    private static final long TMP_RESCAN_MILLIS = 10_000;
+    // Start time slack between the process and the JVM's own record of when it began
+    private static final long START_SLACK_MILLIS = 2_000;
+    private static final int PROLOGUE_SIZE = 32;
+    private static final int ENTRY_HEADER_SIZE = 20;
+    // HotSpot's default is 32 KB (-XX:PerfDataMemorySize); anything far larger is not one of its files
+    private static final long MAX_FILE_SIZE = 16 * 1024 * 1024;
+    // Unsafe.invokeCleaner from jdk.unsupported, or null if it is not there
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * One sample of a JVM's counters.
+     */
+    public static class JvmStats {
+        private final double heapUsedMb;
+        private final double heapCapacityMb;
+        private final double heapMaxMb;
+        private final long gcCount;
+        private final double gcMillis;
+        private final double gcPercent;
+        private final long threads;
+        private final long daemonThreads;
+        private final long peakThreads;
+        private final long safepoints;
+        private final double safepointMillis;
+        private final double safepointSyncMillis;
+        private final long loadedClasses;
+        private final String vmName;
+        private final String command;
+
+        public JvmStats(double heapUsedMb, double heapCapacityMb, double heapMaxMb, long gcCount, double gcMillis,
+                        double gcPercent, long threads, long daemonThreads, long peakThreads, long safepoints,
+                        double safepointMillis, double safepointSyncMillis, long loadedClasses, String vmName, String command) {
+            this.heapUsedMb = heapUsedMb;
+            this.heapCapacityMb = heapCapacityMb;
+            this.heapMaxMb = heapMaxMb;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.gcPercent = gcPercent;
+            this.threads = threads;
+            this.daemonThreads = daemonThreads;
+            this.peakThreads = peakThreads;
+            this.safepoints = safepoints;
+            this.safepointMillis = safepointMillis;
+            this.safepointSyncMillis = safepointSyncMillis;
+            this.loadedClasses = loadedClasses;
+            this.vmName = vmName;
+            this.command = command;
+        }
+
+        public double getHeapUsedMb() { return heapUsedMb; }
+        public double getHeapCapacityMb() { return heapCapacityMb; }
+        public double getHeapMaxMb() { return heapMaxMb; }
+        public long getGcCount() { return gcCount; }
+        public double getGcMillis() { return gcMillis; }
+        /** Share of wall time spent in GC pauses since the previous sample. */
+        public double getGcPercent() { return gcPercent; }
+        public long getThreads() { return threads; }
+        public long getDaemonThreads() { return daemonThreads; }
+        public long getPeakThreads() { return peakThreads; }
+        public long getSafepoints() { return safepoints; }
+        public double getSafepointMillis() { return safepointMillis; }
+        public double getSafepointSyncMillis() { return safepointSyncMillis; }
+        public long getLoadedClasses() { return loadedClasses; }
+        public String getVmName() { return vmName; }
+        public String getCommand() { return command; }
+    }
+
+    /**
+     * A mapped hsperfdata file and the offsets of the counters read from it. Offsets are -1 for
+     * counters this JVM does not have (they differ between collectors and versions).
+     */
+    private static final class Mapping {
+        final int pid;
+        final long startTime;
+        final String path;
+        MappedByteBuffer buffer;
+        int size;
+        int indexedEntries = -1;
+        long generation;
+
+        int[] heapUsed = new int[0];
+        int[] heapCapacity = new int[0];
+        int[] heapMax = new int[0];
+        int[] gcInvocations = new int[0];
+        int[] gcTime = new int[0];
+        int[] loadedClasses = new int[0];
+        int threads = -1;
+        int daemonThreads = -1;
+        int peakThreads = -1;
+        int safepoints = -1;
+        int safepointTime = -1;
+        int safepointSyncTime = -1;
+        double ticksPerMilli = 1_000_000;
+        long vmBeginMillis;
+        String vmName = "";
+        String command = "";
+
+        long previousGcTicks = -1;
+        long previousSampleNanos;
+
+        Mapping(int pid, long startTime, String path) {
+            this.pid = pid;
+            this.startTime = startTime;
+            this.path = path;
+        }
+    }
+
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+    private final Map<Integer, Mapping> mappings = new HashMap<>();
+    // PIDs whose file could not be used, with the start time it was tried for
+    private final Map<Integer, Long> rejected = new HashMap<>();
+    private final Map<File, Long> userDirs = new HashMap<>();
+    private final Map<Integer, String> files = new HashMap<>();
+    private long lastTmpScan;
+    private long generation;
+
+    public boolean isAvailable() {
+        return linux;
+    }
+
+    /**
+     * Starts a refresh: picks up hsperfdata files created or removed since the last one. Only
+     * directories whose modification time changed are listed again.
+     */
+    public void beginSample() {
+        generation++;
+        if (!isAvailable()) return;
+
+        long now = System.currentTimeMillis();
+        if (now - lastTmpScan >= TMP_RESCAN_MILLIS) {
+            lastTmpScan = now;
+            File[] dirs = new File(TMP).listFiles((dir, name) -> name.startsWith(DIR_PREFIX));
+            if (dirs != null) {
+                for (File dir : dirs) userDirs.putIfAbsent(dir, -1L);
+            }
+        }
+
+        boolean changed = false;
+        for (Iterator<Map.Entry<File, Long>> it = userDirs.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<File, Long> e = it.next();
+            long modified = e.getKey().lastModified();
+            if (modified == 0) {
+                it.remove();
+                changed = true;
+            } else if (modified != e.getValue()) {
+                e.setValue(modified);
+                changed = true;
+            }
+        }
+        if (!changed) return;
+
+        files.clear();
+        for (File dir : userDirs.keySet()) {
+            String[] names = dir.list();
+            if (names == null) continue;
+            for (String name : names) {
+                try {
+                    files.put(Integer.parseInt(name), dir.getPath() + "/" + name);
+                } catch (NumberFormatException e) {
+                    // Not a JVM's file
+                }
+            }
+        }
+    }
+
+    /**
+     * Current counters of the JVM with this PID, or null if it is not a JVM whose counters
+     * we can read. {@code startTime} guards against a reused PID picking up a stale file.
+     */
+    public JvmStats sample(int pid, long startTime) {
+        String path = files.get(pid);
+        if (path == null) return null;
+
+        Mapping m = mappings.get(pid);
+        if (m != null && m.startTime != startTime) {
+            release(m);
+            mappings.remove(pid);
+            m = null;
+        }
+        if (m == null) {
+            Long rejectedStart = rejected.get(pid);
+            if (rejectedStart != null && rejectedStart == startTime) return null;
+            m = map(pid, startTime, path);
+            if (m == null) {
+                rejected.put(pid, startTime);
+                return null;
+            }
+            mappings.put(pid, m);
+        }
+        m.generation = generation;
+        JvmStats stats;
+        try {
+            stats = read(m);
+        } catch (InternalError e) {
+            // The file was truncated under the mapping
+            release(m);
+            stats = null;
+        }
+        if (stats == null && m.buffer == null) {
+            mappings.remove(pid);
+            rejected.put(pid, startTime);
+        }
+        return stats;
+    }
+
+    /**
+     * Unmaps the files of JVMs that were not sampled since {@link #beginSample()}.
+     */
+    public void endSample() {
+        for (Iterator<Mapping> it = mappings.values().iterator(); it.hasNext();) {
+            Mapping m = it.next();
+            if (m.generation != generation) {
+                release(m);
+                it.remove();
+            }
+        }
+        rejected.keySet().retainAll(files.keySet());
+    }
+
+    public int getMappedCount() {
+        return mappings.size();
+    }
+
+    private Mapping map(int pid, long startTime, String path) {
+        long size = new File(path).length();
+        if (size < PROLOGUE_SIZE || size > MAX_FILE_SIZE) return null;
+        Mapping m = new Mapping(pid, startTime, path);
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            m.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            return null;
+        }
+        m.size = (int) size;
+        try {
+            // The magic is written so that it always reads as 0xcafec0c0 big-endian
+            int magic = m.buffer.order(ByteOrder.BIG_ENDIAN).getInt(0);
+            boolean littleEndian = m.buffer.get(4) != 0;
+            m.buffer.order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            if (magic != MAGIC || m.buffer.get(5) != 2 || !index(m)) {
+                release(m);
+                return null;
+            }
+        } catch (InternalError e) {
+            release(m);
+            return null;
+        }
+        // A file left behind by an earlier process with the same PID describes some other JVM
+        if (m.vmBeginMillis > 0 && m.vmBeginMillis < startTime - START_SLACK_MILLIS) {
+            release(m);
+            return null;
+        }
+        return m;
+    }
+
+    /**
+     * Walks the entry table and records where each counter of interest lives. The JVM appends
+     * entries as subsystems start, so this runs again whenever the entry count changes.
+     */
+    private boolean index(Mapping m) {
+        int entryOffset = m.buffer.getInt(24);
+        int entries = m.buffer.getInt(28);
+        if (entryOffset < PROLOGUE_SIZE || entryOffset >= m.size || entries < 0) return false;
+        m.threads = m.daemonThreads = m.peakThreads = -1;
+        m.safepoints = m.safepointTime = m.safepointSyncTime = -1;
+
+        List<Integer> heapUsed = new ArrayList<>(), heapCapacity = new ArrayList<>(), heapMax = new ArrayList<>();
+        List<Integer> gcInvocations = new ArrayList<>(), gcTime = new ArrayList<>(), loadedClasses = new ArrayList<>();
+        int offset = entryOffset;
+        for (int i = 0; i < entries && offset + ENTRY_HEADER_SIZE <= m.size; i++) {
+            int entryLength = m.buffer.getInt(offset);
+            int nameOffset = m.buffer.getInt(offset + 4);
+            int vectorLength = m.buffer.getInt(offset + 8);
+            byte type = m.buffer.get(offset + 12);
+            int dataOffset = m.buffer.getInt(offset + 16);
+            // Past a malformed entry the walk cannot find the next one
+            if (entryLength < ENTRY_HEADER_SIZE || entryLength > m.size - offset) break;
+            int entryEnd = offset + entryLength;
+            if (nameOffset < 0 || nameOffset >= entryLength || dataOffset < 0 || dataOffset >= entryLength
+                    || vectorLength < 0) {
+                offset = entryEnd;
+                continue;
+            }
+
+            String name = readString(m.buffer, offset + nameOffset, entryEnd);
+            int data = offset + dataOffset;
+            // Data must lie inside its own entry, which lies inside the mapping
+            boolean longFits = data <= entryEnd - 8;
+            boolean bytesFit = vectorLength <= entryEnd - data;
+            if (type == 'J' && vectorLength == 0 && longFits) {
+                if (name.startsWith("sun.gc.generation.")) {
+                    // sun.gc.generation.<g>.space.<s>.used, sun.gc.generation.<g>.capacity and .maxCapacity
+                    if (name.endsWith(".used") && name.contains(".space.")) heapUsed.add(data);
+                    else if (name.matches("sun\\.gc\\.generation\\.\\d+\\.capacity")) heapCapacity.add(data);
+                    else if (name.matches("sun\\.gc\\.generation\\.\\d+\\.maxCapacity")) heapMax.add(data);
+                } else if (name.matches("sun\\.gc\\.collector\\.[01]\\.invocations")) {
+                    // 0 is the young collector and 1 the old/full one; G1's 2 counts concurrent cycles
+                    gcInvocations.add(data);
+                } else if (name.matches("sun\\.gc\\.collector\\.[01]\\.time")) {
+                    gcTime.add(data);
+                } else {
+                    switch (name) {
+                        case "java.threads.live": m.threads = data; break;
+                        case "java.threads.daemon": m.daemonThreads = data; break;
+                        case "java.threads.livePeak": m.peakThreads = data; break;
+                        case "sun.rt.safepoints": m.safepoints = data; break;
+                        case "sun.rt.safepointTime": m.safepointTime = data; break;
+                        case "sun.rt.safepointSyncTime": m.safepointSyncTime = data; break;
+                        // Classes from the CDS archive are counted separately
+                        case "java.cls.loadedClasses":
+                        case "java.cls.sharedLoadedClasses":
+                            loadedClasses.add(data);
+                            break;
+                        case "sun.os.hrt.frequency": m.ticksPerMilli = Math.max(1, m.buffer.getLong(data)) / 1000.0; break;
+                        case "sun.rt.createVmBeginTime": m.vmBeginMillis = m.buffer.getLong(data); break;
+                        default: break;
+                    }
+                }
+            } else if (type == 'B' && vectorLength > 0 && bytesFit) {
+                if (name.equals("java.property.java.vm.name")) m.vmName = readString(m.buffer, data, data + vectorLength);
+                else if (name.equals("sun.rt.javaCommand")) m.command = readString(m.buffer, data, data + vectorLength);
+            }
+            offset = entryEnd;
+        }
+
+        m.heapUsed = toArray(heapUsed);
+        m.heapCapacity = toArray(heapCapacity);
+        m.heapMax = toArray(heapMax);
+        m.gcInvocations = toArray(gcInvocations);
+        m.gcTime = toArray(gcTime);
+        m.loadedClasses = toArray(loadedClasses);
+        m.indexedEntries = entries;
+        return true;
+    }
+
+    private JvmStats read(Mapping m) {
+        // Touching pages past a shrunken end of file would fault, so look before every read
+        if (new File(m.path).length() < m.size) {
+            release(m);
+            return null;
+        }
+        // Counters are not published until the JVM marks the file accessible
+        if (m.buffer.get(7) == 0) return null;
+        if (m.buffer.getInt(28) != m.indexedEntries && !index(m)) {
+            release(m);
+            return null;
+        }
+
+        long gcTicks = sum(m, m.gcTime);
+        long now = System.nanoTime();
+        double gcPercent = 0;
+        if (m.previousGcTicks >= 0 && now > m.previousSampleNanos) {
+            double gcMillis = (gcTicks - m.previousGcTicks) / m.ticksPerMilli;
+            gcPercent = Math.min(100, gcMillis * 100.0 / ((now - m.previousSampleNanos) / 1e6));
+        }
+        m.previousGcTicks = gcTicks;
+        m.previousSampleNanos = now;
+
+        double mb = 1024.0 * 1024;
+        return new JvmStats(sum(m, m.heapUsed) / mb, sum(m, m.heapCapacity) / mb, sum(m, m.heapMax) / mb,
+                sum(m, m.gcInvocations), gcTicks / m.ticksPerMilli, gcPercent,
+                value(m, m.threads), value(m, m.daemonThreads), value(m, m.peakThreads), value(m, m.safepoints),
+                value(m, m.safepointTime) / m.ticksPerMilli, value(m, m.safepointSyncTime) / m.ticksPerMilli,
+                sum(m, m.loadedClasses), m.vmName, m.command);
+    }
+
+    /**
+     * Unmaps the file right away instead of when the buffer is collected. The buffer must not be
+     * touched afterwards, which is why every caller drops the mapping along with it.
+     */
+    private static void release(Mapping m) {
+        MappedByteBuffer buffer = m.buffer;
+        m.buffer = null;
+        if (buffer == null || INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Left for the collector to unmap
+        }
+    }
+
+    private static long sum(Mapping m, int[] offsets) {
+        long total = 0;
+        for (int offset : offsets) total += m.buffer.getLong(offset);
+        return total;
+    }
+
+    private static long value(Mapping m, int offset) {
+        return offset < 0 ? 0 : m.buffer.getLong(offset);
+    }
+
+    private static String readString(MappedByteBuffer buffer, int from, int limit) {
+        int length = 0;
+        while (from + length < limit && buffer.get(from + length) != 0) length++;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) bytes[i] = buffer.get(from + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) result[i] = values.get(i);
+        return result;
+    }
+}
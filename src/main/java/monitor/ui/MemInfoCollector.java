@@ -0,0 +1,69 @@
+package monitor.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import monitor.ui.SystemInfoTable.ResourceInfo;
+
+/**
+ * Breaks {@code /proc/meminfo} down into the fields that explain where memory went
+ * (page cache, slab, dirty pages, huge pages), as rows for the memory breakdown table.
+ */
+public class MemInfoCollector {
+    private static final String[][] FIELDS = {
+        {"MemFree:", "Free"},
+        {"MemAvailable:", "Available"},
+        {"Buffers:", "Buffers"},
+        {"Cached:", "Page cache"},
+        {"SwapCached:", "Swap cache"},
+        {"Active:", "Active"},
+        {"Inactive:", "Inactive"},
+        {"AnonPages:", "Anonymous"},
+        {"Mapped:", "Mapped"},
+        {"Shmem:", "Shared memory"},
+        {"Slab:", "Slab"},
+        {"SReclaimable:", "Slab reclaimable"},
+        {"SUnreclaim:", "Slab unreclaimable"},
+        {"KernelStack:", "Kernel stacks"},
+        {"PageTables:", "Page tables"},
+        {"Dirty:", "Dirty"},
+        {"Writeback:", "Writeback"},
+        {"AnonHugePages:", "Transparent huge pages"},
+    };
+
+    private final ProcFileReader reader = new ProcFileReader();
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+
+    public List<ResourceInfo> collect() {
+        List<ResourceInfo> rows = new ArrayList<>();
+        if (!linux || !reader.read("/proc/meminfo")) return rows;
+
+        long totalKb = reader.valueOf("MemTotal:", 0);
+        if (totalKb <= 0) return rows;
+
+        for (String[] field : FIELDS) {
+            long kb = reader.valueOf(field[0], -1);
+            if (kb < 0) continue;
+            double percent = kb * 100.0 / totalKb;
+            rows.add(new ResourceInfo(field[1], String.format("%.1f%%", percent), formatKb(kb), formatKb(totalKb), percent));
+        }
+
+        // Huge page counters are in pages, not kB
+        long hugeTotal = reader.valueOf("HugePages_Total:", 0);
+        if (hugeTotal > 0) {
+            long hugeFree = reader.valueOf("HugePages_Free:", 0);
+            long hugeSizeKb = reader.valueOf("Hugepagesize:", 0);
+            long usedKb = (hugeTotal - hugeFree) * hugeSizeKb;
+            long reservedKb = hugeTotal * hugeSizeKb;
+            double percent = reservedKb * 100.0 / totalKb;
+            rows.add(new ResourceInfo("Huge pages (used/reserved)", String.format("%.1f%%", percent),
+                    formatKb(usedKb), formatKb(reservedKb), percent));
+        }
+        return rows;
+    }
+
+    private static String formatKb(long kb) {
+        if (kb >= 1024 * 1024) return String.format("%.2f GB", kb / (1024.0 * 1024));
+        return String.format("%.1f MB", kb / 1024.0);
+    }
+}
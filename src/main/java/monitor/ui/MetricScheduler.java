@@ -0,0 +1,231 @@
+package monitor.ui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link MetricSource}s on one background thread and keeps the monitor's own CPU use under
+ * a budget, expressed as a percentage of one core ({@code -Dmonitor.cpu.budget}, default 5).
+ *
+ * <p>The scheduler ticks every 100 ms and keeps the CPU time spent by sources over the last
+ * second. A due source whose average cost would push that over budget is postponed and its
+ * interval doubled, up to its priority's limit; once it reaches the limit it runs anyway, so
+ * every source keeps producing data, only less often. Intervals recover when usage drops
+ * below half the budget. Sources start staggered so they do not all land on the same tick.
+ */
+public class MetricScheduler {
+    private static final long TICK_MILLIS = 100;
+    private static final int BUCKETS = (int) (1000 / TICK_MILLIS);
+    private static final double COST_EWMA_ALPHA = 0.3;
+
+    public static class SourceStats {
+        private final String name;
+        private final String priority;
+        private final long intervalMillis;
+        private final long effectiveIntervalMillis;
+        private final double averageCostMillis;
+        private final double cpuPercent;
+        private final long runs;
+        private final long deferrals;
+
+        public SourceStats(String name, String priority, long intervalMillis, long effectiveIntervalMillis,
+                           double averageCostMillis, double cpuPercent, long runs, long deferrals) {
+            this.name = name;
+            this.priority = priority;
+            this.intervalMillis = intervalMillis;
+            this.effectiveIntervalMillis = effectiveIntervalMillis;
+            this.averageCostMillis = averageCostMillis;
+            this.cpuPercent = cpuPercent;
+            this.runs = runs;
+            this.deferrals = deferrals;
+        }
+
+        public String getName() { return name; }
+        public String getPriority() { return priority; }
+        public long getIntervalMillis() { return intervalMillis; }
+        public long getEffectiveIntervalMillis() { return effectiveIntervalMillis; }
+        public double getAverageCostMillis() { return averageCostMillis; }
+        public double getCpuPercent() { return cpuPercent; }
+        public long getRuns() { return runs; }
+        public long getDeferrals() { return deferrals; }
+    }
+
+    private static final class Entry<T> {
+        final MetricSource<T> source;
+        final Consumer<T> listener;
+        long nextDue;
+        int stretch = 1;
+        double averageCostNanos;
+        long runs;
+        long deferrals;
+        volatile boolean requested;
+
+        Entry(MetricSource<T> source, Consumer<T> listener) {
+            this.source = source;
+            this.listener = listener;
+        }
+
+        long effectiveInterval() {
+            return source.getIntervalMillis() * stretch;
+        }
+    }
+
+    private final List<Entry<?>> entries = new CopyOnWriteArrayList<>();
+    private final long budgetNanosPerSecond;
+    private final long[] buckets = new long[BUCKETS];
+    private int bucket;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private ScheduledExecutorService executor;
+
+    public MetricScheduler() {
+        this(Double.parseDouble(System.getProperty("monitor.cpu.budget", "5")));
+    }
+
+    /**
+     * @param budgetPercent CPU budget as a percentage of one core
+     */
+    public MetricScheduler(double budgetPercent) {
+        this.budgetNanosPerSecond = (long) (budgetPercent / 100.0 * 1_000_000_000L);
+        this.cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported();
+    }
+
+    public <T> void register(MetricSource<T> source, Consumer<T> listener) {
+        Entry<T> entry = new Entry<>(source, listener);
+        // Stagger first runs across the first tick interval of each source
+        entry.nextDue = System.currentTimeMillis() + (entries.size() * TICK_MILLIS) % Math.max(TICK_MILLIS, source.getIntervalMillis());
+        entries.add(entry);
+        entries.sort(Comparator.comparingInt(e -> e.source.getPriority().ordinal()));
+    }
+
+    public void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metric-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Runs the named source on the next tick regardless of its interval or the budget,
+     * e.g. to refresh the process list right after killing a process.
+     */
+    public void requestNow(String name) {
+        for (Entry<?> entry : entries) {
+            if (entry.source.getName().equals(name)) entry.requested = true;
+        }
+    }
+
+    public synchronized List<SourceStats> getStats() {
+        List<SourceStats> stats = new ArrayList<>();
+        for (Entry<?> e : entries) {
+            double costMillis = e.averageCostNanos / 1_000_000.0;
+            stats.add(new SourceStats(e.source.getName(), e.source.getPriority().name(), e.source.getIntervalMillis(),
+                    e.effectiveInterval(), costMillis, costMillis * 100.0 / e.effectiveInterval(), e.runs, e.deferrals));
+        }
+        return stats;
+    }
+
+    /**
+     * CPU time spent by sources over the last second, as a percentage of one core.
+     */
+    public synchronized double getUsagePercent() {
+        return windowCost() * 100.0 / 1_000_000_000L;
+    }
+
+    public double getBudgetPercent() {
+        return budgetNanosPerSecond * 100.0 / 1_000_000_000L;
+    }
+
+    private void tick() {
+        synchronized (this) {
+            bucket = (bucket + 1) % BUCKETS;
+            buckets[bucket] = 0;
+        }
+        long now = System.currentTimeMillis();
+        for (Entry<?> entry : entries) {
+            if (entry.requested) {
+                entry.requested = false;
+                run(entry, now);
+            } else if (now >= entry.nextDue) {
+                schedule(entry, now);
+            }
+        }
+    }
+
+    private void schedule(Entry<?> entry, long now) {
+        MetricSource.Priority priority = entry.source.getPriority();
+        double spent;
+        synchronized (this) {
+            spent = windowCost();
+        }
+
+        // A source always gets its first run, so every panel has data before degrading kicks in
+        if (priority != MetricSource.Priority.HIGH && entry.runs > 0 && spent + entry.averageCostNanos > budgetNanosPerSecond
+                && entry.stretch < priority.getMaxStretch()) {
+            synchronized (this) {
+                entry.stretch = Math.min(priority.getMaxStretch(), entry.stretch * 2);
+                entry.deferrals++;
+            }
+            entry.nextDue = now + entry.effectiveInterval();
+            return;
+        }
+
+        run(entry, now);
+        if (entry.stretch > 1 && spent + entry.averageCostNanos < budgetNanosPerSecond / 2.0) {
+            synchronized (this) {
+                entry.stretch = Math.max(1, entry.stretch / 2);
+            }
+        }
+    }
+
+    private <T> void run(Entry<T> entry, long now) {
+        long start = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : System.nanoTime();
+        T result = null;
+        try {
+            result = entry.source.collect();
+        } catch (Exception e) {
+            System.err.println("Failed to collect " + entry.source.getName() + ": " + e.getMessage());
+        }
+        long cost = (cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : System.nanoTime()) - start;
+
+        synchronized (this) {
+            buckets[bucket] += cost;
+            entry.averageCostNanos = entry.runs == 0 ? cost
+                    : COST_EWMA_ALPHA * cost + (1 - COST_EWMA_ALPHA) * entry.averageCostNanos;
+            entry.runs++;
+        }
+        entry.nextDue = now + entry.effectiveInterval();
+
+        if (result != null) {
+            try {
+                entry.listener.accept(result);
+            } catch (RuntimeException e) {
+                System.err.println("Failed to deliver " + entry.source.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private long windowCost() {
+        long total = 0;
+        for (long b : buckets) total += b;
+        return total;
+    }
+}
@@ -0,0 +1,35 @@
+package monitor.ui;
+
+/**
+ * A pluggable collector run by {@link MetricScheduler}. Each source declares how often it wants
+ * to run and how important it is; the scheduler measures what every run costs and stretches
+ * the interval of lower priority sources when the monitor goes over its CPU budget.
+ *
+ * <p>{@link #collect()} is always called from the scheduler thread, one source at a time, so
+ * implementations may keep unsynchronized state between runs.
+ */
+public interface MetricSource<T> {
+    enum Priority {
+        /** Never slowed down. */
+        HIGH(1),
+        NORMAL(4),
+        /** Slowed down first, up to 16x its interval. */
+        LOW(16);
+
+        private final int maxStretch;
+
+        Priority(int maxStretch) {
+            this.maxStretch = maxStretch;
+        }
+
+        public int getMaxStretch() { return maxStretch; }
+    }
+
+    String getName();
+
+    long getIntervalMillis();
+
+    Priority getPriority();
+
+    T collect() throws Exception;
+}
@@ -0,0 +1,337 @@
+package monitor.ui;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import oshi.hardware.CentralProcessor.LogicalProcessor;
+
+/**
+ * NUMA view of the machine: per-node memory from {@code /sys/devices/system/node/node*}
+ * {@code /meminfo}, allocation counters from {@code numastat} turned into rates, per-node CPU
+ * load averaged from {@link CpuCoreHistory} through OSHI's processor topology, and the node
+ * placement of pinned processes from {@code /proc/[pid]/numa_maps}.
+ *
+ * <p>The node list and the per-node line keys are discovered once. Every file is read through
+ * a small set of reused {@link ProcFileReader}s, so a sample allocates only its result.
+ * {@code numa_maps} makes the kernel walk the page tables, which is slow for large processes,
+ * so it is only read for processes the user pinned or selected.
+ */
+public class NumaSource implements MetricSource<NumaSource.NumaSnapshot> {
+    public static final String NAME = "NUMA";
+    private static final String NODE_ROOT = "/sys/devices/system/node";
+
+    public static class NodeInfo {
+        private final int node;
+        private final String cpus;
+        private final String packages;
+        private final double cpuLoad;
+        private final double memTotalMb;
+        private final double memUsedMb;
+        private final double memUsedPercent;
+        private final double filePagesMb;
+        private final double anonPagesMb;
+        private final double hitsPerSec;
+        private final double missesPerSec;
+        private final double foreignPerSec;
+        private final double localPercent;
+
+        public NodeInfo(int node, String cpus, String packages, double cpuLoad, double memTotalMb, double memUsedMb,
+                        double filePagesMb, double anonPagesMb, double hitsPerSec, double missesPerSec,
+                        double foreignPerSec, double localPercent) {
+            this.node = node;
+            this.cpus = cpus;
+            this.packages = packages;
+            this.cpuLoad = cpuLoad;
+            this.memTotalMb = memTotalMb;
+            this.memUsedMb = memUsedMb;
+            this.memUsedPercent = memTotalMb > 0 ? memUsedMb * 100.0 / memTotalMb : 0;
+            this.filePagesMb = filePagesMb;
+            this.anonPagesMb = anonPagesMb;
+            this.hitsPerSec = hitsPerSec;
+            this.missesPerSec = missesPerSec;
+            this.foreignPerSec = foreignPerSec;
+            this.localPercent = localPercent;
+        }
+
+        public int getNode() { return node; }
+        public String getCpus() { return cpus; }
+        public String getPackages() { return packages; }
+        public double getCpuLoad() { return cpuLoad; }
+        public double getMemTotalMb() { return memTotalMb; }
+        public double getMemUsedMb() { return memUsedMb; }
+        public double getMemUsedPercent() { return memUsedPercent; }
+        public double getFilePagesMb() { return filePagesMb; }
+        public double getAnonPagesMb() { return anonPagesMb; }
+        public double getHitsPerSec() { return hitsPerSec; }
+        public double getMissesPerSec() { return missesPerSec; }
+        public double getForeignPerSec() { return foreignPerSec; }
+        public double getLocalPercent() { return localPercent; }
+    }
+
+    public static class PlacementInfo {
+        private final int pid;
+        private final String name;
+        private final double totalMb;
+        private final String perNode;
+        private final int dominantNode;
+        private final double remotePercent;
+        private final String cpusAllowed;
+        private final String memsAllowed;
+
+        public PlacementInfo(int pid, String name, double totalMb, String perNode, int dominantNode,
+                             double remotePercent, String cpusAllowed, String memsAllowed) {
+            this.pid = pid;
+            this.name = name;
+            this.totalMb = totalMb;
+            this.perNode = perNode;
+            this.dominantNode = dominantNode;
+            this.remotePercent = remotePercent;
+            this.cpusAllowed = cpusAllowed;
+            this.memsAllowed = memsAllowed;
+        }
+
+        public int getPid() { return pid; }
+        public String getName() { return name; }
+        public double getTotalMb() { return totalMb; }
+        public String getPerNode() { return perNode; }
+        public int getDominantNode() { return dominantNode; }
+        public double getRemotePercent() { return remotePercent; }
+        public String getCpusAllowed() { return cpusAllowed; }
+        public String getMemsAllowed() { return memsAllowed; }
+    }
+
+    public static class NumaSnapshot {
+        final List<NodeInfo> nodes;
+        final List<PlacementInfo> placements;
+
+        public NumaSnapshot(List<NodeInfo> nodes, List<PlacementInfo> placements) {
+            this.nodes = nodes;
+            this.placements = placements;
+        }
+    }
+
+    /**
+     * Everything about a node that does not change between samples.
+     */
+    private static final class Node {
+        final int id;
+        final String meminfoPath;
+        final String numastatPath;
+        final String memTotalKey;
+        final String memUsedKey;
+        final String filePagesKey;
+        final String anonPagesKey;
+        final int[] cores;
+        final String cpus;
+        final String packages;
+        long previousHit = -1;
+        long previousMiss;
+        long previousForeign;
+        long previousLocal;
+        long previousOther;
+
+        Node(int id, int[] cores, String cpus, String packages) {
+            this.id = id;
+            String dir = NODE_ROOT + "/node" + id;
+            this.meminfoPath = dir + "/meminfo";
+            this.numastatPath = dir + "/numastat";
+            this.memTotalKey = "Node " + id + " MemTotal:";
+            this.memUsedKey = "Node " + id + " MemUsed:";
+            this.filePagesKey = "Node " + id + " FilePages:";
+            this.anonPagesKey = "Node " + id + " AnonPages:";
+            this.cores = cores;
+            this.cpus = cpus;
+            this.packages = packages;
+        }
+    }
+
+    private final CpuCoreHistory coreHistory;
+    private final ThreadSampler threadSampler;
+    private final Node[] nodes;
+    private final ProcFileReader nodeReader = new ProcFileReader(4096);
+    private final ProcFileReader mapsReader = new ProcFileReader(64 * 1024);
+    private final ProcFileReader statusReader = new ProcFileReader(2048);
+    private long[] nodeKb = new long[8];
+    private long[] lineKb = new long[8];
+    private long previousTimestamp;
+
+    public NumaSource(CpuCoreHistory coreHistory, List<LogicalProcessor> processors, ThreadSampler threadSampler) {
+        this.coreHistory = coreHistory;
+        this.threadSampler = threadSampler;
+        this.nodes = discoverNodes(processors);
+    }
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public long getIntervalMillis() { return 2000; }
+
+    @Override
+    public Priority getPriority() { return Priority.LOW; }
+
+    public boolean isAvailable() { return nodes.length > 0; }
+
+    @Override
+    public NumaSnapshot collect() {
+        long now = System.currentTimeMillis();
+        double seconds = previousTimestamp > 0 ? (now - previousTimestamp) / 1000.0 : 0;
+        previousTimestamp = now;
+
+        List<NodeInfo> nodeInfos = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            double cpuLoad = 0;
+            for (int core : node.cores) cpuLoad += coreHistory.latest(CpuCoreHistory.TOTAL, core);
+            if (node.cores.length > 0) cpuLoad /= node.cores.length;
+
+            long totalKb = 0, usedKb = 0, fileKb = 0, anonKb = 0;
+            if (nodeReader.read(node.meminfoPath)) {
+                totalKb = nodeReader.valueOf(node.memTotalKey, 0);
+                usedKb = nodeReader.valueOf(node.memUsedKey, 0);
+                fileKb = nodeReader.valueOf(node.filePagesKey, 0);
+                anonKb = nodeReader.valueOf(node.anonPagesKey, 0);
+            }
+
+            double hits = 0, misses = 0, foreign = 0, localPercent = 100;
+            if (nodeReader.read(node.numastatPath)) {
+                long hit = nodeReader.valueOf("numa_hit ", 0);
+                long miss = nodeReader.valueOf("numa_miss ", 0);
+                long foreignCount = nodeReader.valueOf("numa_foreign ", 0);
+                long local = nodeReader.valueOf("local_node ", 0);
+                long other = nodeReader.valueOf("other_node ", 0);
+                if (node.previousHit >= 0 && seconds > 0) {
+                    hits = Math.max(0, hit - node.previousHit) / seconds;
+                    misses = Math.max(0, miss - node.previousMiss) / seconds;
+                    foreign = Math.max(0, foreignCount - node.previousForeign) / seconds;
+                    long localDelta = Math.max(0, local - node.previousLocal);
+                    long otherDelta = Math.max(0, other - node.previousOther);
+                    if (localDelta + otherDelta > 0) localPercent = localDelta * 100.0 / (localDelta + otherDelta);
+                }
+                node.previousHit = hit;
+                node.previousMiss = miss;
+                node.previousForeign = foreignCount;
+                node.previousLocal = local;
+                node.previousOther = other;
+            }
+
+            nodeInfos.add(new NodeInfo(node.id, node.cpus, node.packages, cpuLoad, totalKb / 1024.0, usedKb / 1024.0,
+                    fileKb / 1024.0, anonKb / 1024.0, hits, misses, foreign, localPercent));
+        }
+
+        List<PlacementInfo> placements = new ArrayList<>();
+        if (nodes.length > 0) {
+            TreeSet<Integer> pids = new TreeSet<>();
+            for (int pid : threadSampler.getPinned()) pids.add(pid);
+            if (threadSampler.getSelected() > 0) pids.add(threadSampler.getSelected());
+            for (int pid : pids) {
+                PlacementInfo placement = readPlacement(pid);
+                if (placement != null) placements.add(placement);
+            }
+        }
+        return new NumaSnapshot(nodeInfos, placements);
+    }
+
+    /**
+     * Sums the per-node page counts ({@code N<node>=<pages>}) of every mapping in
+     * {@code numa_maps}, scaled by each mapping's page size.
+     */
+    private PlacementInfo readPlacement(int pid) {
+        if (!mapsReader.read("/proc/" + pid + "/numa_maps")) return null;
+        Arrays.fill(nodeKb, 0);
+        byte[] b = mapsReader.buffer();
+        int length = mapsReader.length();
+        int i = 0;
+        while (i < length) {
+            Arrays.fill(lineKb, 0);
+            long pageKb = 4;
+            while (i < length && b[i] != '\n') {
+                // Tokens are separated by single spaces
+                int tokenStart = i;
+                while (i < length && b[i] != ' ' && b[i] != '\n') i++;
+                if (b[tokenStart] == 'N' && tokenStart + 1 < i && b[tokenStart + 1] >= '0' && b[tokenStart + 1] <= '9') {
+                    mapsReader.seek(tokenStart + 1);
+                    int node = (int) mapsReader.nextLong();
+                    long pages = mapsReader.nextLong();
+                    ensureNodes(node + 1);
+                    lineKb[node] += pages;
+                } else if (mapsReader.matches(tokenStart, "kernelpagesize_kB=")) {
+                    mapsReader.seek(tokenStart + "kernelpagesize_kB=".length());
+                    pageKb = mapsReader.nextLong();
+                }
+                if (i < length && b[i] == ' ') i++;
+            }
+            for (int n = 0; n < lineKb.length; n++) nodeKb[n] += lineKb[n] * pageKb;
+            i++;
+        }
+
+        long totalKb = 0;
+        int dominant = -1;
+        for (int n = 0; n < nodeKb.length; n++) {
+            totalKb += nodeKb[n];
+            if (nodeKb[n] > 0 && (dominant < 0 || nodeKb[n] > nodeKb[dominant])) dominant = n;
+        }
+        StringBuilder perNode = new StringBuilder();
+        for (int n = 0; n < nodeKb.length; n++) {
+            if (nodeKb[n] == 0) continue;
+            if (perNode.length() > 0) perNode.append("  ");
+            perNode.append('N').append(n).append(' ')
+                    .append(String.format("%.1f MB (%.0f%%)", nodeKb[n] / 1024.0, nodeKb[n] * 100.0 / totalKb));
+        }
+
+        String name = "?", cpusAllowed = "", memsAllowed = "";
+        if (statusReader.read("/proc/" + pid + "/status")) {
+            name = statusValue("Name:");
+            cpusAllowed = statusValue("Cpus_allowed_list:");
+            memsAllowed = statusValue("Mems_allowed_list:");
+        }
+        double remotePercent = totalKb > 0 && dominant >= 0 ? (totalKb - nodeKb[dominant]) * 100.0 / totalKb : 0;
+        return new PlacementInfo(pid, name, totalKb / 1024.0, perNode.toString(), dominant, remotePercent, cpusAllowed, memsAllowed);
+    }
+
+    private String statusValue(String key) {
+        int line = statusReader.findLine(key);
+        if (line < 0) return "";
+        int start = line + key.length();
+        while (start < statusReader.length() && (statusReader.byteAt(start) == ' ' || statusReader.byteAt(start) == '\t')) start++;
+        int end = statusReader.indexOf((byte) '\n', start);
+        return statusReader.string(start, end < 0 ? statusReader.length() : end);
+    }
+
+    private void ensureNodes(int count) {
+        if (count > nodeKb.length) {
+            nodeKb = Arrays.copyOf(nodeKb, Math.max(count, nodeKb.length * 2));
+            lineKb = Arrays.copyOf(lineKb, nodeKb.length);
+        }
+    }
+
+    private static Node[] discoverNodes(List<LogicalProcessor> processors) {
+        File[] dirs = new File(ProcPaths.resolve(NODE_ROOT)).listFiles((dir, name) -> name.matches("node\\d+"));
+        if (dirs == null) return new Node[0];
+
+        List<Node> nodes = new ArrayList<>();
+        ProcFileReader reader = new ProcFileReader(256);
+        for (File dir : dirs) {
+            int id = Integer.parseInt(dir.getName().substring(4));
+            List<Integer> cores = new ArrayList<>();
+            TreeSet<Integer> packages = new TreeSet<>();
+            for (int i = 0; i < processors.size(); i++) {
+                if (processors.get(i).getNumaNode() == id) {
+                    cores.add(i);
+                    packages.add(processors.get(i).getPhysicalPackageNumber());
+                }
+            }
+            String cpus = reader.read(dir.getPath() + "/cpulist") ? reader.string(0, reader.length()).trim() : "";
+            StringBuilder packageList = new StringBuilder();
+            for (int p : packages) {
+                if (packageList.length() > 0) packageList.append(", ");
+                packageList.append(p);
+            }
+            nodes.add(new Node(id, cores.stream().mapToInt(Integer::intValue).toArray(), cpus, packageList.toString()));
+        }
+        nodes.sort((a, b) -> Integer.compare(a.id, b.id));
+        return nodes.toArray(new Node[0]);
+    }
+}
@@ -0,0 +1,179 @@
+package monitor.ui;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+
+/**
+ * Subscribes to the kernel proc connector ({@code NETLINK_CONNECTOR}, {@code CN_IDX_PROC}) and
+ * delivers fork, exec and exit events as they happen, so processes that live for a few
+ * milliseconds are not missed between samples.
+ *
+ * <p>Joining the multicast group needs {@code CAP_NET_ADMIN} in the initial user namespace;
+ * {@link #open()} returns null when that is not available and callers fall back to polling.
+ */
+public class ProcConnector {
+    public interface Listener {
+        void onFork(int parentPid, int childPid);
+        void onExec(int pid);
+        void onExit(int pid, int waitStatus);
+    }
+
+    interface CLib extends Library {
+        int socket(int domain, int type, int protocol);
+        int bind(int fd, byte[] address, int length);
+        NativeLong send(int fd, byte[] buffer, NativeLong length, int flags);
+        NativeLong recv(int fd, byte[] buffer, NativeLong length, int flags);
+        int setsockopt(int fd, int level, int option, byte[] value, int length);
+        int close(int fd);
+        int getpid();
+    }
+
+    private static final int AF_NETLINK = 16;
+    private static final int SOCK_DGRAM = 2;
+    private static final int NETLINK_CONNECTOR = 11;
+    private static final int CN_IDX_PROC = 1;
+    private static final int CN_VAL_PROC = 1;
+    private static final int NLMSG_DONE = 3;
+    private static final int SOL_SOCKET = 1;
+    private static final int SO_RCVTIMEO = 20;
+    private static final int EAGAIN = 11;
+    private static final int ENOBUFS = 105;
+    private static final int PROC_CN_MCAST_LISTEN = 1;
+    private static final int PROC_CN_MCAST_IGNORE = 2;
+
+    private static final int PROC_EVENT_FORK = 0x00000001;
+    private static final int PROC_EVENT_EXEC = 0x00000002;
+    private static final int PROC_EVENT_EXIT = 0x80000000;
+
+    // struct nlmsghdr (16 bytes) followed by struct cn_msg (20 bytes)
+    private static final int NLMSG_HEADER = 16;
+    private static final int CN_MSG_HEADER = 20;
+    // struct proc_event: what, cpu, timestamp_ns, then the event data union
+    private static final int EVENT_DATA = NLMSG_HEADER + CN_MSG_HEADER + 16;
+
+    private final CLib libc;
+    private final int fd;
+    private final byte[] receiveBuffer = new byte[8192];
+    private volatile boolean closed;
+
+    private ProcConnector(CLib libc, int fd) {
+        this.libc = libc;
+        this.fd = fd;
+    }
+
+    /**
+     * Opens and subscribes a connector socket, or returns null if the platform or the current
+     * privileges do not allow it.
+     */
+    public static ProcConnector open() {
+        if (!System.getProperty("os.name").toLowerCase().contains("linux")) return null;
+        CLib libc;
+        try {
+            libc = Native.load("c", CLib.class);
+        } catch (UnsatisfiedLinkError | RuntimeException e) {
+            return null;
+        }
+
+        int fd = libc.socket(AF_NETLINK, SOCK_DGRAM, NETLINK_CONNECTOR);
+        if (fd < 0) return null;
+
+        // struct sockaddr_nl: family, pad, pid, groups
+        ByteBuffer address = ByteBuffer.allocate(12).order(ByteOrder.nativeOrder());
+        address.putShort((short) AF_NETLINK).putShort((short) 0).putInt(libc.getpid()).putInt(CN_IDX_PROC);
+        if (libc.bind(fd, address.array(), 12) < 0) {
+            libc.close(fd);
+            return null;
+        }
+
+        // Wake up once a second so close() is noticed without an event arriving
+        ByteBuffer timeout = ByteBuffer.allocate(Native.LONG_SIZE * 2).order(ByteOrder.nativeOrder());
+        if (Native.LONG_SIZE == 8) timeout.putLong(1); else timeout.putInt(1);
+        libc.setsockopt(fd, SOL_SOCKET, SO_RCVTIMEO, timeout.array(), timeout.capacity());
+
+        ProcConnector connector = new ProcConnector(libc, fd);
+        if (!connector.sendControl(PROC_CN_MCAST_LISTEN)) {
+            libc.close(fd);
+            return null;
+        }
+        return connector;
+    }
+
+    /**
+     * Blocks reading events until {@link #close()} is called or the socket fails, then releases
+     * the socket. Returns false if it stopped because of an error.
+     */
+    public boolean run(Listener listener) {
+        ByteBuffer in = ByteBuffer.wrap(receiveBuffer).order(ByteOrder.nativeOrder());
+        try {
+            while (!closed) {
+                long n = libc.recv(fd, receiveBuffer, new NativeLong(receiveBuffer.length), 0).longValue();
+                if (n <= 0) {
+                    int error = Native.getLastError();
+                    // ENOBUFS after a burst drops events but the socket stays usable; the next
+                    // sample reconciles whatever was lost
+                    if (error == EAGAIN || error == ENOBUFS) continue;
+                    return closed;
+                }
+
+                for (int offset = 0; offset + NLMSG_HEADER <= n; ) {
+                    int messageLength = in.getInt(offset);
+                    if (messageLength < NLMSG_HEADER || offset + messageLength > n) break;
+                    if (messageLength >= EVENT_DATA + 16 && in.getShort(offset + 4) == NLMSG_DONE) {
+                        dispatch(in, offset + NLMSG_HEADER + CN_MSG_HEADER, listener);
+                    }
+                    offset += (messageLength + 3) & ~3;
+                }
+            }
+            return true;
+        } finally {
+            sendControl(PROC_CN_MCAST_IGNORE);
+            libc.close(fd);
+        }
+    }
+
+    /**
+     * Asks {@link #run} to stop; it returns within about a second.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    private void dispatch(ByteBuffer in, int event, Listener listener) {
+        int what = in.getInt(event);
+        int data = event + 16;
+        switch (what) {
+            case PROC_EVENT_FORK: {
+                // parent_pid, parent_tgid, child_pid, child_tgid; a new thread has pid != tgid
+                int childPid = in.getInt(data + 8);
+                int childTgid = in.getInt(data + 12);
+                if (childPid == childTgid) listener.onFork(in.getInt(data + 4), childTgid);
+                break;
+            }
+            case PROC_EVENT_EXEC:
+                listener.onExec(in.getInt(data + 4));
+                break;
+            case PROC_EVENT_EXIT: {
+                // process_pid, process_tgid, exit_code; only the thread group leader ends the process
+                int pid = in.getInt(data);
+                int tgid = in.getInt(data + 4);
+                if (pid == tgid) listener.onExit(tgid, in.getInt(data + 8));
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private boolean sendControl(int operation) {
+        int length = NLMSG_HEADER + CN_MSG_HEADER + 4;
+        ByteBuffer out = ByteBuffer.allocate(length).order(ByteOrder.nativeOrder());
+        out.putInt(length).putShort((short) NLMSG_DONE).putShort((short) 0).putInt(0).putInt(libc.getpid());
+        out.putInt(CN_IDX_PROC).putInt(CN_VAL_PROC).putInt(0).putInt(0).putShort((short) 4).putShort((short) 0);
+        out.putInt(operation);
+        return libc.send(fd, out.array(), new NativeLong(length), 0).longValue() == length;
+    }
+}
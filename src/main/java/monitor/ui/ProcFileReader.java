@@ -0,0 +1,186 @@
+package monitor.ui;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads small /proc and /sys files into a reusable byte buffer and parses numbers in place,
+ * so hot collectors do not create a String per line or per field.
+ * Instances are not thread-safe; each collector keeps its own.
+ */
+public class ProcFileReader {
+    private byte[] buffer;
+    private int length;
+    private int position;
+
+    public ProcFileReader() {
+        this(4096);
+    }
+
+    public ProcFileReader(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Reads the whole file, growing the buffer if needed. Returns false if it cannot be read.
+     * {@code /proc} and {@code /sys} paths are taken relative to {@link ProcPaths}.
+     */
+    public boolean read(String path) {
+        length = 0;
+        position = 0;
+        try (FileInputStream in = new FileInputStream(ProcPaths.resolve(path))) {
+            int n;
+            while ((n = in.read(buffer, length, buffer.length - length)) > 0) {
+                length += n;
+                if (length == buffer.length) {
+                    byte[] bigger = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, bigger, 0, length);
+                    buffer = bigger;
+                }
+            }
+            return true;
+        } catch (IOException | SecurityException e) {
+            length = 0;
+            return false;
+        }
+    }
+
+    public int length() { return length; }
+    public byte[] buffer() { return buffer; }
+    public int position() { return position; }
+    public void seek(int position) { this.position = position; }
+    public boolean hasMore() { return position < length; }
+
+    public byte byteAt(int index) { return buffer[index]; }
+
+    /**
+     * Index of the first occurrence of {@code b} at or after {@code from}, or -1.
+     */
+    public int indexOf(byte b, int from) {
+        for (int i = from; i < length; i++) {
+            if (buffer[i] == b) return i;
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(byte b) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == b) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Index of {@code key} at the start of a line, or -1. The key usually includes its separator,
+     * e.g. {@code "MemTotal:"}.
+     */
+    public int findLine(String key) {
+        int keyLength = key.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            if (lineStart + keyLength <= length && matches(lineStart, key)) {
+                return lineStart;
+            }
+            int nl = indexOf((byte) '\n', lineStart);
+            if (nl < 0) break;
+            lineStart = nl + 1;
+        }
+        return -1;
+    }
+
+    public boolean matches(int at, String text) {
+        if (at + text.length() > length) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer[at + i] != (byte) text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Value of the first number on the line starting with {@code key}, or {@code defaultValue}
+     * if there is no such line. Suited to "Key:   123 kB" style files.
+     */
+    public long valueOf(String key, long defaultValue) {
+        int line = findLine(key);
+        if (line < 0) return defaultValue;
+        position = line + key.length();
+        return nextLong();
+    }
+
+    /**
+     * Skips separators and parses the next (optionally negative) integer from the current
+     * position. Returns 0 if there is none.
+     */
+    public long nextLong() {
+        while (position < length && !isDigit(buffer[position]) && buffer[position] != '-') {
+            position++;
+        }
+        boolean negative = false;
+        if (position < length && buffer[position] == '-') {
+            negative = true;
+            position++;
+        }
+        long value = 0;
+        while (position < length && isDigit(buffer[position])) {
+            value = value * 10 + (buffer[position] - '0');
+            position++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the next decimal number such as {@code 12.34}. Returns 0 if there is none.
+     */
+    public double nextDouble() {
+        long whole = nextLong();
+        if (position < length && buffer[position] == '.') {
+            position++;
+            double scale = 0.1;
+            double fraction = 0;
+            while (position < length && isDigit(buffer[position])) {
+                fraction += (buffer[position] - '0') * scale;
+                scale /= 10;
+                position++;
+            }
+            return whole < 0 ? whole - fraction : whole + fraction;
+        }
+        return whole;
+    }
+
+    /**
+     * Moves past {@code count} whitespace-separated fields from the current position.
+     */
+    public void skipFields(int count) {
+        for (int i = 0; i < count; i++) {
+            while (position < length && isSpace(buffer[position])) position++;
+            while (position < length && !isSpace(buffer[position])) position++;
+        }
+        while (position < length && isSpace(buffer[position])) position++;
+    }
+
+    /**
+     * Moves to the start of the next line. Returns false at the end of the buffer.
+     */
+    public boolean nextLine() {
+        int nl = indexOf((byte) '\n', position);
+        if (nl < 0) {
+            position = length;
+            return false;
+        }
+        position = nl + 1;
+        return position < length;
+    }
+
+    public String string(int from, int to) {
+        return new String(buffer, from, Math.max(0, to - from), StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n';
+    }
+}
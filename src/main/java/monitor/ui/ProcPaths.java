@@ -0,0 +1,59 @@
+package monitor.ui;
+
+import oshi.util.GlobalConfig;
+
+/**
+ * Where {@code /proc} and {@code /sys} are read from. Normally the real ones; with
+ * {@code -Dmonitor.root=<dir>} every collector reads {@code <dir>/proc} and {@code <dir>/sys}
+ * instead, which is how {@link FixtureGenerator} trees are replayed by {@link ScaleHarness}.
+ *
+ * <p>OSHI only has a setting for the proc root, and reads it once when its {@code ProcPath}
+ * class loads, so {@link #configure()} has to run before the first {@code SystemInfo} is
+ * created. Whatever OSHI reads from /sys (CPU topology, network counters) still comes from
+ * the host.
+ */
+public final class ProcPaths {
+    private static final String ROOT = stripTrailingSlash(System.getProperty("monitor.root", ""));
+
+    static {
+        if (!ROOT.isEmpty()) {
+            GlobalConfig.set("oshi.util.proc.path", ROOT + "/proc");
+            // udev would enumerate the host's devices, not the fixture's
+            GlobalConfig.set("oshi.os.linux.allowudev", false);
+        }
+    }
+
+    private ProcPaths() {
+    }
+
+    /**
+     * Applies the root to OSHI. Call from {@code main} before anything touches OSHI.
+     */
+    public static void configure() {
+        // The static initializer does the work
+    }
+
+    public static boolean isRedirected() {
+        return !ROOT.isEmpty();
+    }
+
+    public static String getRoot() {
+        return ROOT.isEmpty() ? "/" : ROOT;
+    }
+
+    /**
+     * Maps an absolute {@code /proc} or {@code /sys} path onto the configured root. Other paths,
+     * and every path when no root is set, come back unchanged.
+     */
+    public static String resolve(String path) {
+        if (ROOT.isEmpty()) return path;
+        if (path.startsWith("/proc/") || path.startsWith("/sys/") || path.equals("/proc") || path.equals("/sys")) {
+            return ROOT + path;
+        }
+        return path;
+    }
+
+    private static String stripTrailingSlash(String path) {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
@@ -0,0 +1,484 @@
+package monitor.ui;
+
+import java.util.Arrays;
+
+/**
+ * Streaming per-process statistics used to flag CPU spikes and steady RSS growth.
+ *
+ * <p>State lives in flat primitive arrays indexed by a slot per process, about 700 bytes each:
+ * an EWMA and variance of CPU, a P² sketch of the 95th percentile of CPU, and a one-minute RSS
+ * window of timestamped points for a least-squares slope. RSS is regressed against elapsed
+ * time, not sample count, so the trend stays in MB per minute when the scheduler stretches the
+ * process refresh or the terminal UI runs it at 10 Hz. Updates do not allocate; the arrays only
+ * grow when more processes are alive than ever before. Not thread-safe, it is driven by the
+ * process refresh.
+ */
+public class ProcessAnomalyTracker {
+    public static final int CPU_SPIKE = 1;
+    public static final int MEMORY_GROWTH = 2;
+
+    private static final double EWMA_ALPHA = 0.1;
+    private static final double QUANTILE = 0.95;
+    private static final long WINDOW_MILLIS = 60_000;
+    // RSS points kept per process; faster refreshes are thinned to one point per spacing
+    private static final int WINDOW_POINTS = 64;
+    private static final long POINT_SPACING_MILLIS = 900;
+    // A growth flag needs most of the window covered, with enough points to fit a line
+    private static final long MIN_GROWTH_SPAN_MILLIS = 45_000;
+    private static final int MIN_GROWTH_POINTS = 12;
+    private static final int MIN_CPU_SAMPLES = 10;
+    private static final double MIN_SPIKE_CPU = 10.0;
+    private static final double MIN_GROWTH_MB_PER_MIN = 0.5;
+    private static final double MIN_GROWTH_R2 = 0.8;
+    // Keep a flag visible this long so one-tick spikes can still be seen
+    private static final long FLAG_HOLD_MILLIS = 30_000;
+
+    public static class AnomalyInfo {
+        private final String name;
+        private final String pid;
+        private final String reason;
+        private final double cpu;
+        private final double cpuAverage;
+        private final double cpuP95;
+        private final double rss;
+        private final double rssTrend;
+
+        public AnomalyInfo(String name, String pid, String reason, double cpu, double cpuAverage,
+                           double cpuP95, double rss, double rssTrend) {
+            this.name = name;
+            this.pid = pid;
+            this.reason = reason;
+            this.cpu = cpu;
+            this.cpuAverage = cpuAverage;
+            this.cpuP95 = cpuP95;
+            this.rss = rss;
+            this.rssTrend = rssTrend;
+        }
+
+        public String getName() { return name; }
+        public String getPid() { return pid; }
+        public String getReason() { return reason; }
+        public double getCpu() { return cpu; }
+        public double getCpuAverage() { return cpuAverage; }
+        public double getCpuP95() { return cpuP95; }
+        public double getRss() { return rss; }
+        public double getRssTrend() { return rssTrend; }
+    }
+
+    // pid -> slot, open addressing with linear probing
+    private int[] tableKeys;
+    private int[] tableSlots;
+    private int tableSize;
+
+    private int capacity;
+    private int[] pids;
+    private long[] startTimes;
+    private int[] generations;
+    private long[] flagTimes;
+    private int[] heldFlags;
+    private int[] cpuCounts;
+    private double[] cpuEwma;
+    private double[] cpuVariance;
+    // P² markers, 5 per slot
+    private double[] markerHeights;
+    private int[] markerPositions;
+    // RSS window, WINDOW_POINTS per slot: values, and times in tenths of a second since rssBaseTimes
+    private float[] rssWindow;
+    private int[] rssTimes;
+    private long[] rssBaseTimes;
+    private int[] rssHeads;
+    private int[] rssCounts;
+    // Sums over the window, with x in seconds from its oldest point
+    private double[] sumX;
+    private double[] sumXX;
+    private double[] sumY;
+    private double[] sumXY;
+    private double[] sumYY;
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int generation;
+
+    public ProcessAnomalyTracker() {
+        this(1024);
+    }
+
+    public ProcessAnomalyTracker(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+        // Power of two so probing can mask instead of mod
+        int tableLength = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        tableKeys = new int[tableLength];
+        tableSlots = new int[tableLength];
+        Arrays.fill(tableKeys, -1);
+    }
+
+    /**
+     * Starts a new refresh; processes not updated before {@link #endSample()} are forgotten.
+     */
+    public void beginSample() {
+        generation++;
+    }
+
+    public void endSample() {
+        for (int slot = 0; slot < capacity; slot++) {
+            if (pids[slot] >= 0 && generations[slot] != generation) {
+                removeKey(pids[slot]);
+                pids[slot] = -1;
+                freeSlots[freeCount++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Feeds one sample for a process, taken at {@code timestamp} (epoch milliseconds), and returns
+     * a bit set of {@link #CPU_SPIKE} and {@link #MEMORY_GROWTH} raised within the last
+     * {@value #FLAG_HOLD_MILLIS} ms.
+     */
+    public int update(int pid, long startTime, long timestamp, double cpu, double rssMb) {
+        int slot = lookup(pid);
+        if (slot < 0 || startTimes[slot] != startTime) {
+            if (slot < 0) {
+                slot = allocateSlot();
+                putKey(pid, slot);
+            }
+            resetSlot(slot, pid, startTime, timestamp);
+        }
+        generations[slot] = generation;
+
+        int flags = 0;
+        // Judge the spike against the history before this sample is folded in
+        int count = cpuCounts[slot];
+        if (count >= MIN_CPU_SAMPLES && cpu >= MIN_SPIKE_CPU) {
+            double threshold = Math.max(quantile(slot), cpuEwma[slot] + 3 * Math.sqrt(cpuVariance[slot]));
+            if (cpu > threshold) flags |= CPU_SPIKE;
+        }
+        updateCpu(slot, cpu);
+        updateRss(slot, (float) rssMb, timestamp);
+
+        if (rssCounts[slot] >= MIN_GROWTH_POINTS && rssSpanMillis(slot) >= MIN_GROWTH_SPAN_MILLIS
+                && rssSlopePerMinute(slot) >= MIN_GROWTH_MB_PER_MIN && rssR2(slot) >= MIN_GROWTH_R2) {
+            flags |= MEMORY_GROWTH;
+        }
+
+        if (flags != 0) {
+            heldFlags[slot] |= flags;
+            flagTimes[slot] = timestamp;
+        } else if (heldFlags[slot] != 0 && timestamp - flagTimes[slot] > FLAG_HOLD_MILLIS) {
+            heldFlags[slot] = 0;
+        }
+        return heldFlags[slot];
+    }
+
+    public AnomalyInfo describe(String name, int pid, int flags, double cpu, double rssMb) {
+        int slot = lookup(pid);
+        if (slot < 0) return null;
+        String reason;
+        if ((flags & CPU_SPIKE) != 0 && (flags & MEMORY_GROWTH) != 0) reason = "CPU spike, memory growth";
+        else if ((flags & CPU_SPIKE) != 0) reason = "CPU spike";
+        else reason = "Memory growth";
+        return new AnomalyInfo(name, String.valueOf(pid), reason, cpu, cpuEwma[slot], quantile(slot),
+                rssMb, rssCounts[slot] >= 2 ? rssSlopePerMinute(slot) : 0.0);
+    }
+
+    private void updateCpu(int slot, double cpu) {
+        int n = ++cpuCounts[slot];
+        if (n == 1) {
+            cpuEwma[slot] = cpu;
+            cpuVariance[slot] = 0;
+        } else {
+            double diff = cpu - cpuEwma[slot];
+            double incr = EWMA_ALPHA * diff;
+            cpuEwma[slot] += incr;
+            cpuVariance[slot] = (1 - EWMA_ALPHA) * (cpuVariance[slot] + diff * incr);
+        }
+        updateQuantile(slot, n, cpu);
+    }
+
+    /**
+     * P² algorithm (Jain and Chlamtac): five markers track min, p/2, p, (1+p)/2 and max.
+     */
+    private void updateQuantile(int slot, int n, double x) {
+        int base = slot * 5;
+        double[] q = markerHeights;
+        int[] pos = markerPositions;
+        if (n <= 5) {
+            // Collect the first five observations sorted
+            int i = base + n - 1;
+            q[i] = x;
+            while (i > base && q[i - 1] > q[i]) {
+                double t = q[i - 1];
+                q[i - 1] = q[i];
+                q[i] = t;
+                i--;
+            }
+            pos[base + n - 1] = n;
+            return;
+        }
+
+        int k;
+        if (x < q[base]) {
+            q[base] = x;
+            k = 0;
+        } else if (x >= q[base + 4]) {
+            q[base + 4] = x;
+            k = 3;
+        } else {
+            k = 0;
+            while (k < 3 && x >= q[base + k + 1]) k++;
+        }
+        for (int i = k + 1; i < 5; i++) pos[base + i]++;
+
+        for (int i = 1; i <= 3; i++) {
+            double desired = 1 + (n - 1) * desiredIncrement(i);
+            double d = desired - pos[base + i];
+            int below = pos[base + i] - pos[base + i - 1];
+            int above = pos[base + i + 1] - pos[base + i];
+            if ((d >= 1 && above > 1) || (d <= -1 && below > 1)) {
+                int sign = d >= 0 ? 1 : -1;
+                double candidate = parabolic(slot, i, sign);
+                if (q[base + i - 1] < candidate && candidate < q[base + i + 1]) {
+                    q[base + i] = candidate;
+                } else {
+                    q[base + i] += sign * (q[base + i + sign] - q[base + i]) / (pos[base + i + sign] - pos[base + i]);
+                }
+                pos[base + i] += sign;
+            }
+        }
+    }
+
+    private static double desiredIncrement(int marker) {
+        switch (marker) {
+            case 1: return QUANTILE / 2;
+            case 2: return QUANTILE;
+            case 3: return (1 + QUANTILE) / 2;
+            default: return marker == 0 ? 0 : 1;
+        }
+    }
+
+    private double parabolic(int slot, int i, int sign) {
+        int base = slot * 5;
+        double[] q = markerHeights;
+        int[] n = markerPositions;
+        double n0 = n[base + i - 1], n1 = n[base + i], n2 = n[base + i + 1];
+        return q[base + i] + sign / (n2 - n0)
+                * ((n1 - n0 + sign) * (q[base + i + 1] - q[base + i]) / (n2 - n1)
+                + (n2 - n1 - sign) * (q[base + i] - q[base + i - 1]) / (n1 - n0));
+    }
+
+    private double quantile(int slot) {
+        int n = cpuCounts[slot];
+        if (n == 0) return 0;
+        if (n <= 5) {
+            // Few samples: nearest rank over the sorted initial observations
+            int idx = Math.min(n - 1, (int) Math.ceil(QUANTILE * n) - 1);
+            return markerHeights[slot * 5 + Math.max(0, idx)];
+        }
+        return markerHeights[slot * 5 + 2];
+    }
+
+    private void updateRss(int slot, float y, long timestamp) {
+        int base = slot * WINDOW_POINTS;
+        int head = rssHeads[slot];
+        int count = rssCounts[slot];
+        int t = (int) ((timestamp - rssBaseTimes[slot]) / 100);
+        if (count > 0 && (t - rssTimes[base + (head + count - 1) % WINDOW_POINTS]) * 100L < POINT_SPACING_MILLIS) return;
+
+        if (count == WINDOW_POINTS) {
+            head = (head + 1) % WINDOW_POINTS;
+            count--;
+        }
+        int tail = (head + count) % WINDOW_POINTS;
+        rssWindow[base + tail] = y;
+        rssTimes[base + tail] = t;
+        count++;
+        // Drop points older than the window; after a stall this can leave only the new one
+        while ((t - rssTimes[base + head]) * 100L > WINDOW_MILLIS) {
+            head = (head + 1) % WINDOW_POINTS;
+            count--;
+        }
+        rssHeads[slot] = head;
+        rssCounts[slot] = count;
+        recomputeRssSums(slot);
+    }
+
+    /**
+     * Rebuilds the sums from the window whenever a point is added. With at most one point a
+     * second per process this is cheap, and x measured from the oldest point keeps the sums
+     * small enough that the slope does not lose precision on long-running processes.
+     */
+    private void recomputeRssSums(int slot) {
+        int base = slot * WINDOW_POINTS;
+        int head = rssHeads[slot];
+        int origin = rssTimes[base + head];
+        double sx = 0, sxx = 0, sy = 0, sxy = 0, syy = 0;
+        for (int i = 0; i < rssCounts[slot]; i++) {
+            int index = base + (head + i) % WINDOW_POINTS;
+            double x = (rssTimes[index] - origin) / 10.0;
+            double y = rssWindow[index];
+            sx += x;
+            sxx += x * x;
+            sy += y;
+            sxy += x * y;
+            syy += y * y;
+        }
+        sumX[slot] = sx;
+        sumXX[slot] = sxx;
+        sumY[slot] = sy;
+        sumXY[slot] = sxy;
+        sumYY[slot] = syy;
+    }
+
+    private long rssSpanMillis(int slot) {
+        int base = slot * WINDOW_POINTS;
+        int head = rssHeads[slot];
+        int newest = rssTimes[base + (head + rssCounts[slot] - 1) % WINDOW_POINTS];
+        return (newest - rssTimes[base + head]) * 100L;
+    }
+
+    /**
+     * Least-squares slope of RSS against elapsed time, in MB per minute.
+     */
+    private double rssSlopePerMinute(int slot) {
+        int n = rssCounts[slot];
+        if (n < 2) return 0;
+        double denominator = n * sumXX[slot] - sumX[slot] * sumX[slot];
+        if (denominator <= 0) return 0;
+        return (n * sumXY[slot] - sumX[slot] * sumY[slot]) / denominator * 60.0;
+    }
+
+    private double rssR2(int slot) {
+        int n = rssCounts[slot];
+        double covariance = n * sumXY[slot] - sumX[slot] * sumY[slot];
+        double varX = n * sumXX[slot] - sumX[slot] * sumX[slot];
+        double varY = n * sumYY[slot] - sumY[slot] * sumY[slot];
+        if (varX <= 0 || varY <= 0) return 0;
+        return covariance * covariance / (varX * varY);
+    }
+
+    private void resetSlot(int slot, int pid, long startTime, long timestamp) {
+        pids[slot] = pid;
+        startTimes[slot] = startTime;
+        cpuCounts[slot] = 0;
+        cpuEwma[slot] = 0;
+        cpuVariance[slot] = 0;
+        rssBaseTimes[slot] = timestamp;
+        rssHeads[slot] = 0;
+        rssCounts[slot] = 0;
+        heldFlags[slot] = 0;
+        sumX[slot] = 0;
+        sumXX[slot] = 0;
+        sumY[slot] = 0;
+        sumXY[slot] = 0;
+        sumYY[slot] = 0;
+    }
+
+    private int allocateSlot() {
+        if (freeCount == 0) {
+            allocate(capacity * 2);
+        }
+        return freeSlots[--freeCount];
+    }
+
+    private void allocate(int newCapacity) {
+        int old = capacity;
+        pids = grow(pids, newCapacity);
+        startTimes = grow(startTimes, newCapacity);
+        generations = grow(generations, newCapacity);
+        flagTimes = grow(flagTimes, newCapacity);
+        heldFlags = grow(heldFlags, newCapacity);
+        cpuCounts = grow(cpuCounts, newCapacity);
+        cpuEwma = grow(cpuEwma, newCapacity);
+        cpuVariance = grow(cpuVariance, newCapacity);
+        markerHeights = grow(markerHeights, newCapacity * 5);
+        markerPositions = grow(markerPositions, newCapacity * 5);
+        rssWindow = rssWindow == null ? new float[newCapacity * WINDOW_POINTS] : Arrays.copyOf(rssWindow, newCapacity * WINDOW_POINTS);
+        rssTimes = grow(rssTimes, newCapacity * WINDOW_POINTS);
+        rssBaseTimes = grow(rssBaseTimes, newCapacity);
+        rssHeads = grow(rssHeads, newCapacity);
+        rssCounts = grow(rssCounts, newCapacity);
+        sumX = grow(sumX, newCapacity);
+        sumXX = grow(sumXX, newCapacity);
+        sumY = grow(sumY, newCapacity);
+        sumXY = grow(sumXY, newCapacity);
+        sumYY = grow(sumYY, newCapacity);
+
+        int[] newFree = new int[newCapacity];
+        if (freeSlots != null) System.arraycopy(freeSlots, 0, newFree, 0, freeCount);
+        freeSlots = newFree;
+        // Hand out low slots first
+        for (int slot = newCapacity - 1; slot >= old; slot--) {
+            pids[slot] = -1;
+            freeSlots[freeCount++] = slot;
+        }
+        capacity = newCapacity;
+    }
+
+    private static int[] grow(int[] array, int size) {
+        return array == null ? new int[size] : Arrays.copyOf(array, size);
+    }
+
+    private static long[] grow(long[] array, int size) {
+        return array == null ? new long[size] : Arrays.copyOf(array, size);
+    }
+
+    private static double[] grow(double[] array, int size) {
+        return array == null ? new double[size] : Arrays.copyOf(array, size);
+    }
+
+    private int lookup(int pid) {
+        int mask = tableKeys.length - 1;
+        for (int i = mix(pid) & mask; ; i = (i + 1) & mask) {
+            if (tableKeys[i] == pid) return tableSlots[i];
+            if (tableKeys[i] == -1) return -1;
+        }
+    }
+
+    private void putKey(int pid, int slot) {
+        if ((tableSize + 1) * 2 > tableKeys.length) rehash(tableKeys.length * 2);
+        int mask = tableKeys.length - 1;
+        int i = mix(pid) & mask;
+        while (tableKeys[i] != -1 && tableKeys[i] != pid) i = (i + 1) & mask;
+        if (tableKeys[i] == -1) tableSize++;
+        tableKeys[i] = pid;
+        tableSlots[i] = slot;
+    }
+
+    private void removeKey(int pid) {
+        int mask = tableKeys.length - 1;
+        int i = mix(pid) & mask;
+        while (tableKeys[i] != pid) {
+            if (tableKeys[i] == -1) return;
+            i = (i + 1) & mask;
+        }
+        tableKeys[i] = -1;
+        tableSize--;
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        for (int j = (i + 1) & mask; tableKeys[j] != -1; j = (j + 1) & mask) {
+            int home = mix(tableKeys[j]) & mask;
+            boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+            if (movable) {
+                tableKeys[i] = tableKeys[j];
+                tableSlots[i] = tableSlots[j];
+                tableKeys[j] = -1;
+                i = j;
+            }
+        }
+    }
+
+    private void rehash(int newSize) {
+        int[] oldKeys = tableKeys;
+        int[] oldSlots = tableSlots;
+        tableKeys = new int[newSize];
+        tableSlots = new int[newSize];
+        Arrays.fill(tableKeys, -1);
+        tableSize = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != -1) putKey(oldKeys[i], oldSlots[i]);
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,182 @@
+package monitor.ui;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import oshi.SystemInfo;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+/**
+ * Loads the expensive per-process fields (command line, environment, open files, memory maps,
+ * cgroup) for a single process on demand. Results are kept in a bounded LRU cache keyed by
+ * PID and start time, so a reused PID never shows a previous process's details.
+ */
+public class ProcessDetailLoader {
+    private static final int CACHE_SIZE = 64;
+    private static final int MAX_LIST_ENTRIES = 1000;
+
+    public static class ProcessDetails {
+        private final int pid;
+        private final long startTime;
+        private final String commandLine;
+        private final List<String> environment;
+        private final List<String> openFiles;
+        private final int openFileCount;
+        private final int threadCount;
+        private final List<String> memoryMaps;
+        private final String cgroup;
+        private final long loadedAt;
+
+        public ProcessDetails(int pid, long startTime, String commandLine, List<String> environment,
+                              List<String> openFiles, int openFileCount, int threadCount,
+                              List<String> memoryMaps, String cgroup, long loadedAt) {
+            this.pid = pid;
+            this.startTime = startTime;
+            this.commandLine = commandLine;
+            this.environment = environment;
+            this.openFiles = openFiles;
+            this.openFileCount = openFileCount;
+            this.threadCount = threadCount;
+            this.memoryMaps = memoryMaps;
+            this.cgroup = cgroup;
+            this.loadedAt = loadedAt;
+        }
+
+        public int getPid() { return pid; }
+        public long getStartTime() { return startTime; }
+        public String getCommandLine() { return commandLine; }
+        public List<String> getEnvironment() { return environment; }
+        public List<String> getOpenFiles() { return openFiles; }
+        public int getOpenFileCount() { return openFileCount; }
+        public int getThreadCount() { return threadCount; }
+        public List<String> getMemoryMaps() { return memoryMaps; }
+        public String getCgroup() { return cgroup; }
+        public long getLoadedAt() { return loadedAt; }
+    }
+
+    private static final class Key {
+        private final int pid;
+        private final long startTime;
+
+        Key(int pid, long startTime) {
+            this.pid = pid;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return pid == that.pid && startTime == that.startTime;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pid, startTime);
+        }
+    }
+
+    private final Map<Key, ProcessDetails> cache = new LinkedHashMap<Key, ProcessDetails>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ProcessDetails> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final OperatingSystem os = new SystemInfo().getOperatingSystem();
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+
+    /**
+     * Returns the details for the given process, loading them if they are not cached or if
+     * {@code refresh} is set. Returns null if the process has exited or its PID was reused.
+     */
+    public ProcessDetails getDetails(int pid, long startTime, boolean refresh) {
+        Key key = new Key(pid, startTime);
+        if (!refresh) {
+            synchronized (cache) {
+                ProcessDetails cached = cache.get(key);
+                if (cached != null) return cached;
+            }
+        }
+
+        ProcessDetails details = load(pid, startTime);
+        synchronized (cache) {
+            if (details != null) {
+                cache.put(key, details);
+            } else {
+                cache.remove(key);
+            }
+        }
+        return details;
+    }
+
+    private ProcessDetails load(int pid, long startTime) {
+        OSProcess p = os.getProcess(pid);
+        if (p == null || (startTime > 0 && p.getStartTime() != startTime)) {
+            return null;
+        }
+
+        String commandLine = String.join(" ", p.getArguments());
+        if (commandLine.isEmpty()) commandLine = p.getCommandLine();
+
+        List<String> environment = p.getEnvironmentVariables().entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .sorted()
+                .collect(Collectors.toList());
+
+        List<String> openFiles = new ArrayList<>();
+        int openFileCount = 0;
+        List<String> memoryMaps = Collections.emptyList();
+        String cgroup = "";
+        if (linux) {
+            Path procDir = Paths.get(ProcPaths.resolve("/proc/" + pid));
+            openFileCount = readOpenFiles(procDir.resolve("fd"), openFiles);
+            memoryMaps = readLines(procDir.resolve("maps"));
+            cgroup = String.join("\n", readLines(procDir.resolve("cgroup")));
+        } else {
+            openFileCount = (int) p.getOpenFiles();
+        }
+
+        return new ProcessDetails(pid, p.getStartTime(), commandLine, environment, openFiles,
+                openFileCount, p.getThreadCount(), memoryMaps, cgroup, System.currentTimeMillis());
+    }
+
+    private int readOpenFiles(Path fdDir, List<String> openFiles) {
+        int count = 0;
+        try (DirectoryStream<Path> fds = Files.newDirectoryStream(fdDir)) {
+            for (Path fd : fds) {
+                count++;
+                if (openFiles.size() >= MAX_LIST_ENTRIES) continue;
+                try {
+                    openFiles.add(fd.getFileName() + " -> " + Files.readSymbolicLink(fd));
+                } catch (IOException e) {
+                    // fd closed while listing
+                }
+            }
+        } catch (IOException | SecurityException e) {
+            openFiles.add("Unavailable: " + e.getMessage());
+        }
+        return count;
+    }
+
+    private List<String> readLines(Path path) {
+        try (Stream<String> lines = Files.lines(path)) {
+            return lines.limit(MAX_LIST_ENTRIES).collect(Collectors.toList());
+        } catch (IOException | SecurityException | java.io.UncheckedIOException e) {
+            return Collections.singletonList("Unavailable: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package monitor.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import oshi.software.os.OSProcess;
+import oshi.software.os.linux.LinuxOperatingSystem;
+
+/**
+ * Turns process table samples into start and exit events, kept in a bounded ring log with a
+ * per-executable churn view.
+ *
+ * <p>Every sample is diffed against the previous one by PID and start time, so a reused PID
+ * shows up as an exit followed by a start. Where the kernel proc connector is available, fork,
+ * exec and exit events arrive as they happen as well, which catches processes that live and die
+ * between two samples; the sample diff then only reconciles events the socket dropped. Exit
+ * events carry the CPU time from the last read of {@code /proc/[pid]/stat}: at exit time the
+ * process is still a zombie, so the connector path reads the final counters, while the sample
+ * path falls back to the values from the last sample that saw the process.
+ */
+public class ProcessLifecycleTracker {
+    public enum Type { START, EXEC, EXIT }
+
+    public static class LifecycleEvent {
+        private final Type type;
+        private final long timestamp;
+        private final int pid;
+        private final int parentPid;
+        private final String name;
+        private final long cpuMillis;
+        private final long lifetimeMillis;
+        private final int exitCode;
+        private final boolean fromKernel;
+
+        public LifecycleEvent(Type type, long timestamp, int pid, int parentPid, String name,
+                              long cpuMillis, long lifetimeMillis, int exitCode, boolean fromKernel) {
+            this.type = type;
+            this.timestamp = timestamp;
+            this.pid = pid;
+            this.parentPid = parentPid;
+            this.name = name;
+            this.cpuMillis = cpuMillis;
+            this.lifetimeMillis = lifetimeMillis;
+            this.exitCode = exitCode;
+            this.fromKernel = fromKernel;
+        }
+
+        public Type getType() { return type; }
+        public long getTimestamp() { return timestamp; }
+        public String getTime() { return new java.text.SimpleDateFormat("HH:mm:ss.SSS").format(new java.util.Date(timestamp)); }
+        public int getPid() { return pid; }
+        public int getParentPid() { return parentPid; }
+        public String getName() { return name; }
+        public long getCpuMillis() { return cpuMillis; }
+        public long getLifetimeMillis() { return lifetimeMillis; }
+        public int getExitCode() { return exitCode; }
+        public String getSource() { return fromKernel ? "kernel" : "sample"; }
+    }
+
+    public static class ChurnInfo {
+        private final String name;
+        private final double startsPerSec;
+        private final double exitsPerSec;
+        private final int shortLived;
+        private final long averageLifetimeMillis;
+        private final long exitCpuMillis;
+
+        public ChurnInfo(String name, double startsPerSec, double exitsPerSec, int shortLived,
+                         long averageLifetimeMillis, long exitCpuMillis) {
+            this.name = name;
+            this.startsPerSec = startsPerSec;
+            this.exitsPerSec = exitsPerSec;
+            this.shortLived = shortLived;
+            this.averageLifetimeMillis = averageLifetimeMillis;
+            this.exitCpuMillis = exitCpuMillis;
+        }
+
+        public String getName() { return name; }
+        public double getStartsPerSec() { return startsPerSec; }
+        public double getExitsPerSec() { return exitsPerSec; }
+        public int getShortLived() { return shortLived; }
+        public long getAverageLifetimeMillis() { return averageLifetimeMillis; }
+        public long getExitCpuMillis() { return exitCpuMillis; }
+    }
+
+    private static final class Known {
+        long startTime;
+        int parentPid;
+        String name;
+        long cpuMillis;
+        long seenAt;
+        int generation;
+        boolean sampled;
+    }
+
+    // btime from /proc/stat, read once; start times in stat are ticks since boot
+    private static volatile long bootMillis = -1;
+
+    private final LifecycleEvent[] ring;
+    private int head;
+    private int size;
+    private long totalEvents;
+
+    private final Map<Integer, Known> known = new HashMap<>();
+    // Exits the connector reported, by PID: the start time of the process and when it was last
+    // exited or still listed. A scan under way at exit, or a zombie, may still show the process.
+    private final Map<Integer, long[]> recentExits = new HashMap<>();
+    private int generation;
+    private boolean firstSample = true;
+    private long lastSampleAt;
+
+    private final ProcFileReader kernelReader = new ProcFileReader(1024);
+    private final ProcFileReader sampleReader = new ProcFileReader(1024);
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+    private ProcConnector connector;
+    private volatile boolean kernelEvents;
+
+    public ProcessLifecycleTracker() {
+        this(Integer.getInteger("monitor.lifecycle.capacity", 4096));
+    }
+
+    public ProcessLifecycleTracker(int capacity) {
+        ring = new LifecycleEvent[Math.max(16, capacity)];
+    }
+
+    /**
+     * Subscribes to the proc connector if privileges allow. Without it, events come from the
+     * sample diff only.
+     */
+    public void start() {
+        // Kernel events describe the host, not a redirected /proc tree
+        if (!linux || connector != null || ProcPaths.isRedirected()) return;
+        connector = ProcConnector.open();
+        if (connector == null) return;
+        kernelEvents = true;
+        ProcConnector c = connector;
+        Thread thread = new Thread(() -> {
+            c.run(new ProcConnector.Listener() {
+                @Override
+                public void onFork(int parentPid, int childPid) { kernelFork(parentPid, childPid); }
+                @Override
+                public void onExec(int pid) { kernelExec(pid); }
+                @Override
+                public void onExit(int pid, int waitStatus) { kernelExit(pid, waitStatus); }
+            });
+            kernelEvents = false;
+        }, "proc-connector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        if (connector != null) {
+            connector.close();
+            connector = null;
+        }
+    }
+
+    public boolean isUsingKernelEvents() { return kernelEvents; }
+
+    /**
+     * Diffs a process table sample against the previous one. The first sample only records the
+     * baseline, so processes that were already running are not reported as starts.
+     */
+    public synchronized void sample(List<OSProcess> processes) {
+        long now = System.currentTimeMillis();
+        generation++;
+        for (OSProcess p : processes) {
+            int pid = p.getProcessID();
+            long cpuMillis = p.getKernelTime() + p.getUserTime();
+            Known k = known.get(pid);
+            if (k != null && !k.sampled) {
+                // Reported by the connector; it already handles PID reuse, adopt OSHI's start time
+                k.startTime = p.getStartTime();
+            } else if (k != null && !sameProcess(k.startTime, p.getStartTime())) {
+                // PID reused since the last look; the old process exited unseen
+                emitExit(pid, k, k.cpuMillis, -1, now, false);
+                k = null;
+            }
+            long[] exit = k == null ? recentExits.get(pid) : null;
+            if (exit != null && sameProcess(exit[0], p.getStartTime())) {
+                // Exited during the scan, or a zombie not reaped yet; the connector reported it
+                exit[1] = now;
+                continue;
+            }
+            if (k == null) {
+                k = new Known();
+                k.startTime = p.getStartTime();
+                k.parentPid = p.getParentProcessID();
+                k.seenAt = now;
+                known.put(pid, k);
+                if (!firstSample) {
+                    append(new LifecycleEvent(Type.START, p.getStartTime(), pid, k.parentPid, p.getName(), 0, 0, -1, false));
+                }
+            }
+            k.name = p.getName();
+            k.cpuMillis = cpuMillis;
+            k.generation = generation;
+            k.sampled = true;
+        }
+
+        for (Iterator<Map.Entry<Integer, Known>> it = known.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, Known> e = it.next();
+            Known k = e.getValue();
+            // Entries added by the connector after this sample was taken are not gone yet
+            if (k.generation == generation || (!k.sampled && k.seenAt >= lastSampleAt)) continue;
+            it.remove();
+            long cpuMillis = k.cpuMillis;
+            // A zombie still has its final counters; use them if the parent has not reaped it yet
+            if (readStat(sampleReader, e.getKey())) cpuMillis = statCpuMillis(sampleReader);
+            emitExit(e.getKey(), k, cpuMillis, -1, now, false);
+        }
+        // Exited, and not seen since, before the previous sample ended: gone before this scan began
+        recentExits.values().removeIf(exit -> exit[1] < lastSampleAt);
+        firstSample = false;
+        lastSampleAt = now;
+    }
+
+    /**
+     * Newest events first, at most {@code max}.
+     */
+    public synchronized List<LifecycleEvent> getEvents(int max) {
+        List<LifecycleEvent> events = new ArrayList<>(Math.min(max, size));
+        for (int i = 0; i < Math.min(max, size); i++) {
+            events.add(ring[(head - 1 - i + ring.length) % ring.length]);
+        }
+        return events;
+    }
+
+    public synchronized long getTotalEvents() { return totalEvents; }
+
+    /**
+     * Start and exit rates per executable over the last {@code windowMillis}, busiest first.
+     * Starts are attributed to the name the process ended up with, so a shell that forks and
+     * execs a compiler counts as a compiler start.
+     */
+    public synchronized List<ChurnInfo> getChurn(long windowMillis) {
+        long since = System.currentTimeMillis() - windowMillis;
+        // Names after exec, by PID, for starts whose image changed later in the window
+        Map<Integer, String> finalNames = new HashMap<>();
+        Map<String, long[]> stats = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            LifecycleEvent e = ring[(head - 1 - i + ring.length) % ring.length];
+            // Sampled starts are stamped with the real start time, so the log is only roughly ordered
+            if (e.timestamp < since) continue;
+            if (e.type == Type.START) {
+                String name = finalNames.getOrDefault(e.pid, e.name);
+                stats.computeIfAbsent(name, n -> new long[5])[0]++;
+            } else {
+                if (!finalNames.containsKey(e.pid)) finalNames.put(e.pid, e.name);
+                if (e.type == Type.EXIT) {
+                    long[] s = stats.computeIfAbsent(e.name, n -> new long[5]);
+                    s[1]++;
+                    if (e.lifetimeMillis < 1000) s[2]++;
+                    s[3] += e.lifetimeMillis;
+                    s[4] += e.cpuMillis;
+                }
+            }
+        }
+
+        double seconds = windowMillis / 1000.0;
+        List<ChurnInfo> churn = new ArrayList<>();
+        for (Map.Entry<String, long[]> e : stats.entrySet()) {
+            long[] s = e.getValue();
+            churn.add(new ChurnInfo(e.getKey(), s[0] / seconds, s[1] / seconds, (int) s[2],
+                    s[1] > 0 ? s[3] / s[1] : 0, s[4]));
+        }
+        churn.sort((a, b) -> Double.compare(b.startsPerSec + b.exitsPerSec, a.startsPerSec + a.exitsPerSec));
+        return churn;
+    }
+
+    private synchronized void kernelFork(int parentPid, int pid) {
+        long now = System.currentTimeMillis();
+        Known k = known.get(pid);
+        if (k != null) emitExit(pid, k, k.cpuMillis, -1, now, true);
+        k = new Known();
+        k.parentPid = parentPid;
+        k.startTime = now;
+        k.seenAt = now;
+        // Right after fork the child still carries its parent's name
+        if (readStat(kernelReader, pid)) {
+            k.name = statName(kernelReader);
+            k.startTime = statStartMillis(kernelReader);
+        } else {
+            Known parent = known.get(parentPid);
+            k.name = parent != null ? parent.name : "?";
+        }
+        known.put(pid, k);
+        append(new LifecycleEvent(Type.START, now, pid, parentPid, k.name, 0, 0, -1, true));
+    }
+
+    private synchronized void kernelExec(int pid) {
+        Known k = known.get(pid);
+        if (k == null || !readStat(kernelReader, pid)) return;
+        k.name = statName(kernelReader);
+        append(new LifecycleEvent(Type.EXEC, System.currentTimeMillis(), pid, k.parentPid, k.name, 0, 0, -1, true));
+    }
+
+    private synchronized void kernelExit(int pid, int waitStatus) {
+        // Shell convention: the exit status, or 128 + signal number when killed by a signal
+        int exitCode = (waitStatus & 0x7f) == 0 ? (waitStatus >> 8) & 0xff : 128 + (waitStatus & 0x7f);
+        long now = System.currentTimeMillis();
+        Known k = known.remove(pid);
+        if (k == null) {
+            k = new Known();
+            k.startTime = now;
+            k.name = "?";
+        }
+        long cpuMillis = k.cpuMillis;
+        long startTime = k.startTime;
+        // The exit event fires before the parent reaps, so stat still holds the final counters
+        if (readStat(kernelReader, pid)) {
+            cpuMillis = statCpuMillis(kernelReader);
+            k.name = statName(kernelReader);
+            startTime = statStartMillis(kernelReader);
+        }
+        recentExits.put(pid, new long[] {startTime, now});
+        emitExit(pid, k, cpuMillis, exitCode, now, true);
+    }
+
+    private void emitExit(int pid, Known k, long cpuMillis, int exitCode, long now, boolean fromKernel) {
+        append(new LifecycleEvent(Type.EXIT, now, pid, k.parentPid, k.name, cpuMillis,
+                Math.max(0, now - k.startTime), exitCode, fromKernel));
+    }
+
+    private void append(LifecycleEvent event) {
+        ring[head] = event;
+        head = (head + 1) % ring.length;
+        if (size < ring.length) size++;
+        totalEvents++;
+    }
+
+    // OSHI and /proc start times are derived from the same tick count but rounded differently
+    static boolean sameProcess(long a, long b) {
+        return Math.abs(a - b) < 1000;
+    }
+
+    private boolean readStat(ProcFileReader reader, int pid) {
+        return linux && reader.read("/proc/" + pid + "/stat") && reader.lastIndexOf((byte) ')') > 0;
+    }
+
+    private static String statName(ProcFileReader reader) {
+        int open = reader.indexOf((byte) '(', 0);
+        return reader.string(open + 1, reader.lastIndexOf((byte) ')'));
+    }
+
+    private static long statCpuMillis(ProcFileReader reader) {
+        // utime and stime follow the state and ten more fields
+        reader.seek(reader.lastIndexOf((byte) ')') + 2);
+        reader.skipFields(11);
+        long ticks = reader.nextLong() + reader.nextLong();
+        return (long) (ticks * 1000.0 / LinuxOperatingSystem.getHz());
+    }
+
+    /**
+     * Start time of the process whose {@code stat} file {@code reader} holds, in epoch
+     * milliseconds, comparable to OSHI's with {@link #sameProcess}.
+     */
+    static long statStartMillis(ProcFileReader reader) {
+        // starttime is the nineteenth field after the state
+        reader.seek(reader.lastIndexOf((byte) ')') + 2);
+        reader.skipFields(19);
+        long ticks = reader.nextLong();
+        if (bootMillis < 0) {
+            ProcFileReader stat = new ProcFileReader(8192);
+            bootMillis = stat.read("/proc/stat") ? stat.valueOf("btime ", 0) * 1000 : 0;
+        }
+        return bootMillis + (long) (ticks * 1000.0 / LinuxOperatingSystem.getHz());
+    }
+}
@@ -0,0 +1,147 @@
+package monitor.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import oshi.SystemInfo;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+/**
+ * Process table source: per-process CPU from the delta against the previous sample, memory and
+ * disk counters from OSHI, PSS/USS from the smaps sampler, socket counts and anomaly flags.
+ * Each sample also feeds the lifecycle tracker's start/exit diff.
+ */
+public class ProcessSource implements MetricSource<ProcessSource.ProcessSnapshot> {
+    private volatile long intervalMillis = 1000;
+
+    public static final String NAME = "Processes";
+
+    public static class ProcessSnapshot {
+        final List<SystemInfoTable.ProcessInfo> processes;
+        final List<ProcessAnomalyTracker.AnomalyInfo> suspicious;
+        // Sockets in /proc/net that no readable process owns (other users, kernel sockets)
+        final int unattributedSockets;
+
+        public ProcessSnapshot(List<SystemInfoTable.ProcessInfo> processes, List<ProcessAnomalyTracker.AnomalyInfo> suspicious,
+                               int unattributedSockets) {
+            this.processes = processes;
+            this.suspicious = suspicious;
+            this.unattributedSockets = unattributedSockets;
+        }
+    }
+
+    private final OperatingSystem os;
+    private final int logicalProcessorCount;
+    private final SmapsSampler smapsSampler;
+    private final ProcessAnomalyTracker anomalyTracker;
+    private final SocketInodeIndex socketIndex;
+    private final ProcessLifecycleTracker lifecycleTracker;
+    private final JvmPerfReader jvmReader = new JvmPerfReader();
+    private final Map<Integer, OSProcess> previousProcessMap = new HashMap<>();
+    private long previousTimestamp;
+
+    public ProcessSource(SystemInfo si, SmapsSampler smapsSampler, ProcessAnomalyTracker anomalyTracker,
+                         SocketInodeIndex socketIndex, ProcessLifecycleTracker lifecycleTracker) {
+        this.os = si.getOperatingSystem();
+        this.logicalProcessorCount = si.getHardware().getProcessor().getLogicalProcessorCount();
+        this.smapsSampler = smapsSampler;
+        this.anomalyTracker = anomalyTracker;
+        this.socketIndex = socketIndex;
+        this.lifecycleTracker = lifecycleTracker;
+    }
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public long getIntervalMillis() { return intervalMillis; }
+
+    /**
+     * Changes how often the scheduler runs this source, e.g. for the terminal UI's 10 Hz mode.
+     */
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public Priority getPriority() { return Priority.NORMAL; }
+
+    @Override
+    public ProcessSnapshot collect() {
+        List<OSProcess> processes = os.getProcesses(null, OperatingSystem.ProcessSorting.CPU_DESC, 0);
+        long currentTimestamp = System.currentTimeMillis();
+        lifecycleTracker.sample(processes);
+
+        List<SystemInfoTable.ProcessInfo> result = new ArrayList<>();
+
+        // Only the largest processes by RSS are worth an smaps_rollup read
+        List<OSProcess> byRss = new ArrayList<>(processes);
+        byRss.sort((a, b) -> Long.compare(b.getResidentSetSize(), a.getResidentSetSize()));
+        int candidateCount = Math.min(SmapsSampler.MAX_CANDIDATES, byRss.size());
+        int[] candidatePids = new int[candidateCount];
+        long[] candidateStartTimes = new long[candidateCount];
+        for (int i = 0; i < candidateCount; i++) {
+            candidatePids[i] = byRss.get(i).getProcessID();
+            candidateStartTimes[i] = byRss.get(i).getStartTime();
+        }
+        smapsSampler.setCandidates(candidatePids, candidateStartTimes);
+
+        int[] livePids = new int[processes.size()];
+        for (int i = 0; i < livePids.length; i++) livePids[i] = processes.get(i).getProcessID();
+        Map<Integer, Integer> connections = socketIndex.refresh(livePids);
+
+        List<ProcessAnomalyTracker.AnomalyInfo> suspicious = new ArrayList<>();
+        anomalyTracker.beginSample();
+        jvmReader.beginSample();
+
+        for (OSProcess p : processes) {
+            double cpu = 0.0;
+            OSProcess old = previousProcessMap.get(p.getProcessID());
+            if (old != null && previousTimestamp > 0) {
+                long elapsed = currentTimestamp - previousTimestamp;
+                if (elapsed > 0) {
+                    long cputime = p.getKernelTime() + p.getUserTime();
+                    long oldcputime = old.getKernelTime() + old.getUserTime();
+                    cpu = ((cputime - oldcputime) * 100.0 / elapsed) / logicalProcessorCount;
+                }
+            }
+
+            double rssMB = p.getResidentSetSize() / (1024.0 * 1024);
+            double virtualMemMB = p.getVirtualSize() / (1024.0 * 1024);
+            double diskReadMB = p.getBytesRead() / (1024.0 * 1024);
+
+            int flags = anomalyTracker.update(p.getProcessID(), p.getStartTime(), currentTimestamp, Math.max(0.0, cpu), rssMB);
+            if (flags != 0) {
+                suspicious.add(anomalyTracker.describe(p.getName(), p.getProcessID(), flags, Math.max(0.0, cpu), rssMB));
+            }
+
+            result.add(new SystemInfoTable.ProcessInfo(
+                p.getName(),
+                p.getUser(),
+                String.valueOf(p.getProcessID()),
+                p.getStartTime(),
+                Math.max(0.0, cpu),
+                rssMB,
+                virtualMemMB,
+                diskReadMB,
+                smapsSampler.get(p.getProcessID(), p.getStartTime()),
+                connections.getOrDefault(p.getProcessID(), 0),
+                jvmReader.sample(p.getProcessID(), p.getStartTime())
+            ));
+        }
+
+        anomalyTracker.endSample();
+        jvmReader.endSample();
+
+        previousProcessMap.clear();
+        for (OSProcess p : processes) {
+            previousProcessMap.put(p.getProcessID(), p);
+        }
+        previousTimestamp = currentTimestamp;
+
+        return new ProcessSnapshot(result, suspicious, socketIndex.getUnattributed());
+    }
+}
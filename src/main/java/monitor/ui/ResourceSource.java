@@ -0,0 +1,116 @@
+package monitor.ui;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.hardware.NetworkIF;
+
+/**
+ * System-wide resources: CPU, memory, swap, network totals and per-interface rates, the
+ * /proc/meminfo breakdown and saturation signals. Per-core ticks go into the shared
+ * {@link CpuCoreHistory}. This drives the history charts, so it is never slowed down.
+ */
+public class ResourceSource implements MetricSource<SystemInfoTable.ResourceSnapshot> {
+    private volatile long intervalMillis = 1000;
+
+    public static final String NAME = "Resources";
+
+    private final HardwareAbstractionLayer hardware;
+    private final CentralProcessor processor;
+    private final CpuCoreHistory coreHistory;
+    private final MemInfoCollector memInfoCollector = new MemInfoCollector();
+    private final SaturationCollector saturationCollector = new SaturationCollector();
+
+    private long[] prevTotalTicks;
+    private long networkTimestamp;
+    private long bytesSent;
+    private long bytesRecv;
+    private final Map<String, long[]> previousInterfaceBytes = new HashMap<>();
+
+    public ResourceSource(SystemInfo si, CpuCoreHistory coreHistory) {
+        this.hardware = si.getHardware();
+        this.processor = hardware.getProcessor();
+        this.coreHistory = coreHistory;
+    }
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public long getIntervalMillis() { return intervalMillis; }
+
+    /**
+     * Changes how often the scheduler runs this source, e.g. for the terminal UI's 10 Hz mode.
+     */
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public Priority getPriority() { return Priority.HIGH; }
+
+    @Override
+    public SystemInfoTable.ResourceSnapshot collect() {
+        // CPU calculation
+        long[] currentTotalTicks = processor.getSystemCpuLoadTicks();
+        double cpuLoad = 0.0;
+        if (prevTotalTicks != null) {
+            cpuLoad = processor.getSystemCpuLoadBetweenTicks(prevTotalTicks) * 100;
+        }
+        prevTotalTicks = currentTotalTicks;
+
+        // Per-core CPU, split into user/system/iowait/steal inside the ring buffers
+        coreHistory.record(processor.getProcessorCpuLoadTicks());
+
+        // Memory usage
+        GlobalMemory memory = hardware.getMemory();
+        long totalMemory = memory.getTotal();
+        long availableMemory = memory.getAvailable();
+        double memLoad = totalMemory > 0 ? (double)(totalMemory - availableMemory) / totalMemory * 100.0 : 0.0;
+
+        // Swap usage
+        long totalSwap = memory.getVirtualMemory().getSwapTotal();
+        long usedSwap = memory.getVirtualMemory().getSwapUsed();
+        double swapLoad = totalSwap > 0 ? (double)usedSwap / totalSwap * 100.0 : 0.0;
+
+        // Network usage, in total and per interface
+        long currentBytesSent = 0;
+        long currentBytesRecv = 0;
+        long currentNetworkTimestamp = System.currentTimeMillis();
+        Map<String, double[]> interfaceRates = new LinkedHashMap<>();
+        for (NetworkIF net : hardware.getNetworkIFs()) {
+            currentBytesSent += net.getBytesSent();
+            currentBytesRecv += net.getBytesRecv();
+
+            long[] previous = previousInterfaceBytes.get(net.getName());
+            if (previous != null && currentNetworkTimestamp > networkTimestamp) {
+                double seconds = (currentNetworkTimestamp - networkTimestamp) / 1000.0;
+                interfaceRates.put(net.getName(), new double[] {
+                    Math.max(0.0, (net.getBytesSent() - previous[0]) / seconds / 1024.0),
+                    Math.max(0.0, (net.getBytesRecv() - previous[1]) / seconds / 1024.0)
+                });
+            }
+            previousInterfaceBytes.put(net.getName(), new long[] {net.getBytesSent(), net.getBytesRecv()});
+        }
+        double netUp = 0.0;
+        double netDown = 0.0;
+        if (networkTimestamp > 0) {
+            long timeDiff = currentNetworkTimestamp - networkTimestamp;
+            if (timeDiff > 0) {
+                netUp = (currentBytesSent - bytesSent) / (timeDiff / 1000.0) / 1024.0; // KB/s
+                netDown = (currentBytesRecv - bytesRecv) / (timeDiff / 1000.0) / 1024.0; // KB/s
+            }
+        }
+        networkTimestamp = currentNetworkTimestamp;
+        bytesSent = currentBytesSent;
+        bytesRecv = currentBytesRecv;
+
+        return new SystemInfoTable.ResourceSnapshot(Math.max(0.0, cpuLoad), memLoad, swapLoad, Math.max(0.0, netUp), Math.max(0.0, netDown),
+                interfaceRates, memInfoCollector.collect(), saturationCollector.collect());
+    }
+}
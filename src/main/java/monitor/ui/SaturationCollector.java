@@ -0,0 +1,106 @@
+package monitor.ui;
+
+/**
+ * Collects saturation signals: pressure stall information from {@code /proc/pressure},
+ * load average from {@code /proc/loadavg}, and the run queue and context switch counters from
+ * {@code /proc/stat}. Each file has its own reusable buffer. On kernels without PSI the
+ * pressure values are reported as unavailable instead of failing the whole sample.
+ */
+public class SaturationCollector {
+    public static class SaturationSnapshot {
+        final boolean psiAvailable;
+        final double cpuSome;
+        final double memorySome;
+        final double memoryFull;
+        final double ioSome;
+        final double ioFull;
+        final double load1;
+        final double load5;
+        final double load15;
+        final long procsRunning;
+        final long procsBlocked;
+        final double contextSwitchesPerSec;
+
+        public SaturationSnapshot(boolean psiAvailable, double cpuSome, double memorySome, double memoryFull,
+                                  double ioSome, double ioFull, double load1, double load5, double load15,
+                                  long procsRunning, long procsBlocked, double contextSwitchesPerSec) {
+            this.psiAvailable = psiAvailable;
+            this.cpuSome = cpuSome;
+            this.memorySome = memorySome;
+            this.memoryFull = memoryFull;
+            this.ioSome = ioSome;
+            this.ioFull = ioFull;
+            this.load1 = load1;
+            this.load5 = load5;
+            this.load15 = load15;
+            this.procsRunning = procsRunning;
+            this.procsBlocked = procsBlocked;
+            this.contextSwitchesPerSec = contextSwitchesPerSec;
+        }
+    }
+
+    private final ProcFileReader cpuPressure = new ProcFileReader(256);
+    private final ProcFileReader memoryPressure = new ProcFileReader(256);
+    private final ProcFileReader ioPressure = new ProcFileReader(256);
+    private final ProcFileReader loadAvg = new ProcFileReader(128);
+    private final ProcFileReader stat = new ProcFileReader(8192);
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+
+    private boolean psiAvailable = true;
+    private long previousContextSwitches = -1;
+    private long previousTimestamp;
+
+    public SaturationSnapshot collect() {
+        if (!linux) {
+            return new SaturationSnapshot(false, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        double cpuSome = 0, memorySome = 0, memoryFull = 0, ioSome = 0, ioFull = 0;
+        if (psiAvailable) {
+            // Once a read fails (no CONFIG_PSI, or psi=0 on the command line) stop trying
+            psiAvailable = cpuPressure.read("/proc/pressure/cpu")
+                    && memoryPressure.read("/proc/pressure/memory")
+                    && ioPressure.read("/proc/pressure/io");
+            if (psiAvailable) {
+                cpuSome = avg10(cpuPressure, "some");
+                memorySome = avg10(memoryPressure, "some");
+                memoryFull = avg10(memoryPressure, "full");
+                ioSome = avg10(ioPressure, "some");
+                ioFull = avg10(ioPressure, "full");
+            }
+        }
+
+        double load1 = 0, load5 = 0, load15 = 0;
+        if (loadAvg.read("/proc/loadavg")) {
+            loadAvg.seek(0);
+            load1 = loadAvg.nextDouble();
+            load5 = loadAvg.nextDouble();
+            load15 = loadAvg.nextDouble();
+        }
+
+        long procsRunning = 0, procsBlocked = 0;
+        double contextSwitchesPerSec = 0;
+        if (stat.read("/proc/stat")) {
+            procsRunning = stat.valueOf("procs_running ", 0);
+            procsBlocked = stat.valueOf("procs_blocked ", 0);
+            long contextSwitches = stat.valueOf("ctxt ", -1);
+            long now = System.currentTimeMillis();
+            if (previousContextSwitches >= 0 && contextSwitches >= previousContextSwitches && now > previousTimestamp) {
+                contextSwitchesPerSec = (contextSwitches - previousContextSwitches) / ((now - previousTimestamp) / 1000.0);
+            }
+            previousContextSwitches = contextSwitches;
+            previousTimestamp = now;
+        }
+
+        return new SaturationSnapshot(psiAvailable, cpuSome, memorySome, memoryFull, ioSome, ioFull,
+                load1, load5, load15, procsRunning, procsBlocked, contextSwitchesPerSec);
+    }
+
+    private static double avg10(ProcFileReader reader, String line) {
+        int start = reader.findLine(line);
+        if (start < 0) return 0;
+        // "some avg10=1.23 avg60=..." - the first number after the prefix is avg10
+        reader.seek(start + line.length() + " avg10=".length());
+        return reader.nextDouble();
+    }
+}
@@ -0,0 +1,225 @@
+package monitor.ui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import oshi.SystemInfo;
+
+/**
+ * Runs the collectors against a {@link FixtureGenerator} tree and reports how they scale:
+ * collection latency and CPU per source, allocation per refresh, heap use, and the time the
+ * FX thread spends applying each snapshot. Between rounds the fixture is advanced, so the
+ * process source sees exits, starts and reused PIDs, and the interrupt source sees counters
+ * wrap. Network rates and CPU topology still come from the host (see {@link ProcPaths}).
+ *
+ * <pre>
+ * java -cp ... monitor.ui.ScaleHarness /tmp/fixture --generate --processes=50000 --cores=512 --rounds=20
+ * </pre>
+ *
+ * Without a display the FX toolkit cannot start; the same list updates are then timed on the
+ * harness thread, which leaves out only what a shown table adds on top (layout and CSS).
+ */
+public class ScaleHarness {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    /**
+     * One source plus what the GUI does with its result on the FX thread.
+     */
+    private static final class Probe<T> {
+        final MetricSource<T> source;
+        final Consumer<T> fxApply;
+        final ToIntFunction<T> rows;
+        final List<Double> collectMillis = new ArrayList<>();
+        final List<Double> cpuMillis = new ArrayList<>();
+        final List<Double> fxMillis = new ArrayList<>();
+        final List<Double> endToEndMillis = new ArrayList<>();
+        final List<Double> allocatedMb = new ArrayList<>();
+        int lastRows;
+
+        Probe(MetricSource<T> source, Consumer<T> fxApply, ToIntFunction<T> rows) {
+            this.source = source;
+            this.fxApply = fxApply;
+            this.rows = rows;
+        }
+
+        void run(boolean fxThread) throws Exception {
+            long thread = Thread.currentThread().getId();
+            long allocatedBefore = allocatedBytes(thread);
+            long cpuBefore = THREADS.getCurrentThreadCpuTime();
+            long start = System.nanoTime();
+            T result = source.collect();
+            long collected = System.nanoTime();
+            cpuMillis.add((THREADS.getCurrentThreadCpuTime() - cpuBefore) / 1e6);
+            allocatedMb.add((allocatedBytes(thread) - allocatedBefore) / 1e6);
+            lastRows = rows.applyAsInt(result);
+
+            long[] fxNanos = new long[1];
+            Runnable apply = () -> {
+                long fxStart = System.nanoTime();
+                fxApply.accept(result);
+                fxNanos[0] = System.nanoTime() - fxStart;
+            };
+            if (fxThread) {
+                CountDownLatch done = new CountDownLatch(1);
+                Platform.runLater(() -> {
+                    apply.run();
+                    done.countDown();
+                });
+                done.await();
+            } else {
+                apply.run();
+            }
+            long end = System.nanoTime();
+            collectMillis.add((collected - start) / 1e6);
+            fxMillis.add(fxNanos[0] / 1e6);
+            endToEndMillis.add((end - start) / 1e6);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ScaleHarness <fixture dir> [--generate] [--rounds=20] [--advance=1.0]"
+                    + " [--processes=50000] [--cores=512] [--mounts=1000] [--nodes=8]");
+            System.exit(2);
+        }
+        Path root = Paths.get(args[0]).toAbsolutePath();
+        Map<String, String> options = FixtureGenerator.parseOptions(args, 1);
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "20"));
+        double advanceSeconds = Double.parseDouble(options.getOrDefault("advance", "1.0"));
+
+        // Must happen before OSHI reads its configuration
+        System.setProperty("monitor.root", root.toString());
+        ProcPaths.configure();
+
+        FixtureGenerator generator = FixtureGenerator.fromOptions(root, options);
+        if (options.containsKey("generate") || !Files.isDirectory(root.resolve("proc"))) {
+            long start = System.nanoTime();
+            generator.generate();
+            System.out.printf("Generated fixture in %.1f s%n", (System.nanoTime() - start) / 1e9);
+        } else if (advanceSeconds > 0) {
+            System.out.println("Advancing needs the generator's state; pass --generate to measure churn");
+            advanceSeconds = 0;
+        }
+
+        boolean fxThread = startToolkit();
+        System.out.println(fxThread ? "FX work timed on the FX application thread"
+                : "No FX toolkit (no display); FX work timed on the harness thread");
+
+        SystemInfo si = new SystemInfo();
+        int cores = si.getHardware().getProcessor().getLogicalProcessorCount();
+        CpuCoreHistory coreHistory = new CpuCoreHistory(cores, 120);
+        ThreadSampler threadSampler = new ThreadSampler();
+        SmapsSampler smapsSampler = new SmapsSampler();
+        smapsSampler.start();
+
+        ObservableList<SystemInfoTable.ProcessInfo> processData = FXCollections.observableArrayList();
+        ObservableList<ProcessAnomalyTracker.AnomalyInfo> suspiciousData = FXCollections.observableArrayList();
+        ObservableList<SystemInfoTable.ResourceInfo> resourceData = FXCollections.observableArrayList();
+        ObservableList<NumaSource.NodeInfo> nodeData = FXCollections.observableArrayList();
+        ObservableList<NumaSource.PlacementInfo> placementData = FXCollections.observableArrayList();
+        ObservableList<InterruptSource.IrqInfo> irqData = FXCollections.observableArrayList();
+        ObservableList<SystemInfoTable.FileSystemInfo> fileSystemData = FXCollections.observableArrayList();
+        Comparator<SystemInfoTable.ProcessInfo> byCpu = Comparator.comparingDouble(SystemInfoTable.ProcessInfo::getCpuValue).reversed();
+
+        List<Probe<?>> probes = new ArrayList<>();
+        probes.add(new Probe<>(new ProcessSource(si, smapsSampler, new ProcessAnomalyTracker(), new SocketInodeIndex(), new ProcessLifecycleTracker()),
+                snapshot -> {
+                    // What showProcesses does with a table sorted by CPU
+                    processData.clear();
+                    processData.addAll(snapshot.processes);
+                    suspiciousData.setAll(snapshot.suspicious);
+                    FXCollections.sort(processData, byCpu);
+                }, snapshot -> snapshot.processes.size()));
+        probes.add(new Probe<>(new ResourceSource(si, coreHistory),
+                snapshot -> resourceData.setAll(snapshot.memoryBreakdown), snapshot -> snapshot.memoryBreakdown.size()));
+        probes.add(new Probe<>(new NumaSource(coreHistory, si.getHardware().getProcessor().getLogicalProcessors(), threadSampler),
+                snapshot -> {
+                    nodeData.setAll(snapshot.nodes);
+                    placementData.setAll(snapshot.placements);
+                }, snapshot -> snapshot.nodes.size()));
+        probes.add(new Probe<>(new InterruptSource(), snapshot -> irqData.setAll(snapshot.top), InterruptSource.InterruptSnapshot::getRows));
+        probes.add(new Probe<>(new FileSystemSource(si), fileSystemData::setAll, List::size));
+
+        long peakHeap = 0;
+        List<Double> advanceMillis = new ArrayList<>();
+        for (int round = 0; round < rounds; round++) {
+            if (round > 0 && advanceSeconds > 0) {
+                long start = System.nanoTime();
+                generator.advance(advanceSeconds);
+                advanceMillis.add((System.nanoTime() - start) / 1e6);
+            }
+            for (Probe<?> probe : probes) probe.run(fxThread);
+            peakHeap = Math.max(peakHeap, MEMORY.getHeapMemoryUsage().getUsed());
+        }
+        smapsSampler.stop();
+        System.gc();
+        long retainedHeap = MEMORY.getHeapMemoryUsage().getUsed();
+
+        System.out.printf("%nFixture %s, %d rounds, %.1f s of simulated time between rounds%n", root, rounds, advanceSeconds);
+        System.out.printf("%-14s %7s %9s %9s %9s %9s %9s %9s %9s %10s%n",
+                "Source", "rows", "first ms", "p50 ms", "p95 ms", "max ms", "cpu ms", "alloc MB", "fx p95", "e2e p95");
+        for (Probe<?> probe : probes) {
+            // The first round fills caches (process maps, socket index, node layout); report it apart
+            List<Double> steady = tail(probe.collectMillis);
+            System.out.printf("%-14s %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9.2f %10.1f%n",
+                    probe.source.getName(), probe.lastRows, probe.collectMillis.get(0),
+                    percentile(steady, 50), percentile(steady, 95), percentile(steady, 100),
+                    percentile(tail(probe.cpuMillis), 50), percentile(tail(probe.allocatedMb), 50),
+                    percentile(tail(probe.fxMillis), 95), percentile(tail(probe.endToEndMillis), 95));
+        }
+        if (!advanceMillis.isEmpty()) {
+            System.out.printf("Fixture advance: p50 %.0f ms (not part of the figures above)%n", percentile(advanceMillis, 50));
+        }
+        System.out.printf("Heap: peak %.1f MB, retained after GC %.1f MB%n", peakHeap / 1e6, retainedHeap / 1e6);
+        System.exit(0);
+    }
+
+    private static boolean startToolkit() {
+        // Prism prints a stack trace when it has nothing to draw on, so do not even try
+        if (System.getenv("DISPLAY") == null && System.getenv("WAYLAND_DISPLAY") == null) return false;
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+            return started.await(10, TimeUnit.SECONDS);
+        } catch (Throwable e) {
+            // No display, or no native graphics libraries
+            return false;
+        }
+    }
+
+    private static long allocatedBytes(long threadId) {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(threadId);
+        }
+        return 0;
+    }
+
+    private static List<Double> tail(List<Double> values) {
+        return values.size() > 1 ? values.subList(1, values.size()) : values;
+    }
+
+    private static double percentile(List<Double> values, int percentile) {
+        if (values.isEmpty()) return 0;
+        double[] sorted = values.stream().mapToDouble(Double::doubleValue).toArray();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,119 @@
+package monitor.ui;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background sampler for {@code /proc/[pid]/smaps_rollup}. The kernel walks every mapping to
+ * produce that file, so only the largest processes by RSS are sampled, round-robin, and each
+ * second's pass stops once its time budget is spent. Values therefore carry their own age.
+ */
+public class SmapsSampler {
+    private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    public static final int MAX_CANDIDATES = 200;
+
+    public static class MemoryDetail {
+        private final long startTime;
+        private final long pssKb;
+        private final long ussKb;
+        private final long swapKb;
+        private final long sampledAt;
+
+        public MemoryDetail(long startTime, long pssKb, long ussKb, long swapKb, long sampledAt) {
+            this.startTime = startTime;
+            this.pssKb = pssKb;
+            this.ussKb = ussKb;
+            this.swapKb = swapKb;
+            this.sampledAt = sampledAt;
+        }
+
+        public long getStartTime() { return startTime; }
+        public long getPssKb() { return pssKb; }
+        public long getUssKb() { return ussKb; }
+        public long getSwapKb() { return swapKb; }
+        public long getSampledAt() { return sampledAt; }
+    }
+
+    private static final class Candidates {
+        final int[] pids;
+        final long[] startTimes;
+
+        Candidates(int[] pids, long[] startTimes) {
+            this.pids = pids;
+            this.startTimes = startTimes;
+        }
+    }
+
+    private final Map<Integer, MemoryDetail> details = new ConcurrentHashMap<>();
+    private final ProcFileReader reader = new ProcFileReader(2048);
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+    private ScheduledExecutorService executor;
+
+    // Written by the process refresh task, read by the sampler thread
+    private volatile Candidates candidates = new Candidates(new int[0], new long[0]);
+    private int cursor;
+
+    public void start() {
+        if (!linux || executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "smaps-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::samplePass, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Sets the processes to sample, largest RSS first. Entries for processes no longer in the
+     * list are dropped.
+     */
+    public void setCandidates(int[] pids, long[] startTimes) {
+        candidates = new Candidates(pids, startTimes);
+        Set<Integer> keep = new HashSet<>();
+        for (int pid : pids) keep.add(pid);
+        details.keySet().retainAll(keep);
+    }
+
+    /**
+     * Latest sample for the process, or null if it has not been sampled yet or the PID now
+     * belongs to a different process.
+     */
+    public MemoryDetail get(int pid, long startTime) {
+        MemoryDetail detail = details.get(pid);
+        if (detail == null || detail.getStartTime() != startTime) return null;
+        return detail;
+    }
+
+    private void samplePass() {
+        Candidates current = candidates;
+        int[] pids = current.pids;
+        long[] startTimes = current.startTimes;
+        if (pids.length == 0) return;
+
+        long deadline = System.nanoTime() + BUDGET_NANOS;
+        for (int sampled = 0; sampled < pids.length && System.nanoTime() < deadline; sampled++) {
+            if (cursor >= pids.length) cursor = 0;
+            int pid = pids[cursor];
+            long startTime = startTimes[cursor];
+            cursor++;
+            if (reader.read("/proc/" + pid + "/smaps_rollup")) {
+                long pss = reader.valueOf("Pss:", 0);
+                long uss = reader.valueOf("Private_Clean:", 0) + reader.valueOf("Private_Dirty:", 0);
+                long swap = reader.valueOf("Swap:", 0);
+                details.put(pid, new MemoryDetail(startTime, pss, uss, swap, System.currentTimeMillis()));
+            }
+        }
+    }
+}
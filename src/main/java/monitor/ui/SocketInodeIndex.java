@@ -0,0 +1,291 @@
+package monitor.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts open TCP/UDP sockets per process by matching inodes from {@code /proc/net/*} against
+ * a socket-inode to PID index.
+ *
+ * <p>The index is maintained incrementally: new processes have their {@code /proc/[pid]/fd}
+ * scanned once, and existing processes are only rescanned round-robin, within a time budget,
+ * while some unattributed socket inode has not yet been through a full rescan. Processes whose
+ * descriptors cannot be read are skipped until they exit, and closed sockets are pruned each
+ * refresh.
+ */
+public class SocketInodeIndex {
+    private static final String[] NET_FILES = {"tcp", "tcp6", "udp", "udp6"};
+    private static final long RESCAN_BUDGET_NANOS = 20_000_000L;
+    private static final String SOCKET_PREFIX = "socket:[";
+
+    private final LongIntMap inodeToPid = new LongIntMap();
+    private final LongIntMap currentInodes = new LongIntMap();
+    private final Map<Integer, long[]> pidInodes = new HashMap<>();
+    private final Set<Integer> unreadablePids = new HashSet<>();
+    private final ProcFileReader reader = new ProcFileReader(64 * 1024);
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+    private final LongIntMap unattributedInodes = new LongIntMap();
+    // Unattributed inodes left after a full rescan cycle (other users, kernel sockets)
+    private final LongIntMap settledInodes = new LongIntMap();
+    private int[] rescanOrder = new int[0];
+    private int rescanCursor;
+    private int unattributed;
+    private int rescannedThisCycle;
+
+    /**
+     * Updates the index for the given live processes and returns open socket counts per PID.
+     */
+    public synchronized Map<Integer, Integer> refresh(int[] livePids) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        if (!linux) return counts;
+
+        readSocketInodes();
+
+        // Forget processes that exited
+        Set<Integer> live = new HashSet<>();
+        for (int pid : livePids) live.add(pid);
+        for (Iterator<Map.Entry<Integer, long[]>> it = pidInodes.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, long[]> e = it.next();
+            if (!live.contains(e.getKey())) {
+                for (long inode : e.getValue()) inodeToPid.remove(inode);
+                it.remove();
+            }
+        }
+        unreadablePids.retainAll(live);
+
+        // New processes are always scanned
+        for (int pid : livePids) {
+            if (!pidInodes.containsKey(pid) && !unreadablePids.contains(pid)) scanProcess(pid);
+        }
+
+        attribute(counts);
+        settledInodes.retainKeys(currentInodes);
+        if (hasUnsettledInodes()) {
+            // Something opened sockets since the last scan; revisit processes within the budget
+            if (rescanOrder.length != livePids.length) rescanOrder = Arrays.copyOf(livePids, livePids.length);
+            else System.arraycopy(livePids, 0, rescanOrder, 0, livePids.length);
+            long deadline = System.nanoTime() + RESCAN_BUDGET_NANOS;
+            for (int i = 0; i < rescanOrder.length && System.nanoTime() < deadline; i++) {
+                if (rescanCursor >= rescanOrder.length) rescanCursor = 0;
+                int pid = rescanOrder[rescanCursor++];
+                if (!unreadablePids.contains(pid)) scanProcess(pid);
+                rescannedThisCycle++;
+            }
+            counts.clear();
+            attribute(counts);
+            if (rescannedThisCycle >= rescanOrder.length) {
+                // Every process has been looked at; whatever is left has no readable owner
+                for (int i = 0; i < unattributedInodes.capacity(); i++) {
+                    if (unattributedInodes.isUsed(i)) settledInodes.put(unattributedInodes.keyAt(i), 1);
+                }
+                rescannedThisCycle = 0;
+            }
+        } else {
+            rescannedThisCycle = 0;
+        }
+
+        inodeToPid.retainKeys(currentInodes);
+        return counts;
+    }
+
+    /**
+     * Number of socket inodes from the last refresh that no readable process owns.
+     */
+    public synchronized int getUnattributed() { return unattributed; }
+
+    private void attribute(Map<Integer, Integer> counts) {
+        unattributed = 0;
+        unattributedInodes.clear();
+        for (int i = 0; i < currentInodes.capacity(); i++) {
+            if (!currentInodes.isUsed(i)) continue;
+            long inode = currentInodes.keyAt(i);
+            int pid = inodeToPid.get(inode, -1);
+            if (pid >= 0) {
+                counts.merge(pid, 1, Integer::sum);
+            } else {
+                unattributed++;
+                unattributedInodes.put(inode, 1);
+            }
+        }
+    }
+
+    /**
+     * Whether some unattributed inode has not yet survived a full rescan. Comparing sets rather
+     * than counts catches a new socket that opened while an unrelated one closed.
+     */
+    private boolean hasUnsettledInodes() {
+        for (int i = 0; i < unattributedInodes.capacity(); i++) {
+            if (unattributedInodes.isUsed(i) && settledInodes.get(unattributedInodes.keyAt(i), -1) < 0) return true;
+        }
+        return false;
+    }
+
+    private void readSocketInodes() {
+        currentInodes.clear();
+        for (String file : NET_FILES) {
+            if (!reader.read("/proc/net/" + file)) continue;
+            reader.seek(0);
+            // Skip the header; inode is the tenth column
+            while (reader.nextLine()) {
+                int lineStart = reader.position();
+                reader.skipFields(9);
+                long inode = reader.nextLong();
+                // TIME_WAIT and other orphaned entries report inode 0
+                if (inode != 0) currentInodes.put(inode, 1);
+                reader.seek(lineStart);
+            }
+        }
+    }
+
+    private void scanProcess(int pid) {
+        String fdDir = ProcPaths.resolve("/proc/" + pid + "/fd");
+        String[] fds = new File(fdDir).list();
+        if (fds == null) {
+            unreadablePids.add(pid);
+            return;
+        }
+
+        long[] previous = pidInodes.get(pid);
+        if (previous != null) {
+            for (long inode : previous) inodeToPid.remove(inode);
+        }
+
+        long[] inodes = new long[8];
+        int n = 0;
+        for (String fd : fds) {
+            Path link = Paths.get(fdDir, fd);
+            String target;
+            try {
+                target = Files.readSymbolicLink(link).toString();
+            } catch (IOException | SecurityException | UnsupportedOperationException e) {
+                continue;
+            }
+            if (!target.startsWith(SOCKET_PREFIX)) continue;
+            long inode;
+            try {
+                inode = Long.parseLong(target.substring(SOCKET_PREFIX.length(), target.length() - 1));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (n == inodes.length) inodes = Arrays.copyOf(inodes, n * 2);
+            inodes[n++] = inode;
+            inodeToPid.put(inode, pid);
+        }
+        pidInodes.put(pid, Arrays.copyOf(inodes, n));
+    }
+
+    /**
+     * Open-addressing long to int map, so 100k sockets do not mean 100k boxed keys.
+     */
+    static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+        private long[] keys;
+        private int[] values;
+        private long[] spareKeys;
+        private int[] spareValues;
+        private int size;
+
+        LongIntMap() {
+            keys = new long[1024];
+            values = new int[1024];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int capacity() { return keys.length; }
+        boolean isUsed(int i) { return keys[i] != EMPTY; }
+        long keyAt(int i) { return keys[i]; }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        int get(long key, int missing) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+                if (keys[i] == EMPTY) return missing;
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) rehash(keys.length * 2);
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+            if (keys[i] == EMPTY) size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) return;
+                i = (i + 1) & mask;
+            }
+            keys[i] = EMPTY;
+            size--;
+            // Backward-shift deletion
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = mix(keys[j]) & mask;
+                boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+                if (movable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    keys[j] = EMPTY;
+                    i = j;
+                }
+            }
+        }
+
+        /**
+         * Drops every key that is not present in {@code other}.
+         */
+        void retainKeys(LongIntMap other) {
+            boolean removed = false;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && other.get(keys[i], -1) < 0) {
+                    keys[i] = EMPTY;
+                    size--;
+                    removed = true;
+                }
+            }
+            // Bulk removal breaks probe chains, so rehash once into the spare arrays
+            if (removed) rehash(keys.length);
+        }
+
+        private void rehash(int newLength) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            if (spareKeys == null || spareKeys.length != newLength) {
+                spareKeys = new long[newLength];
+                spareValues = new int[newLength];
+            }
+            keys = spareKeys;
+            values = spareValues;
+            spareKeys = oldKeys;
+            spareValues = oldValues;
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
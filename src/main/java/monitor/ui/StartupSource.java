@@ -0,0 +1,63 @@
+package monitor.ui;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startup entries: autostart folders on Windows and Linux, plus systemd services, cron
+ * {@code @reboot} jobs and rc.local on Linux. These rarely change, so the source runs once a
+ * minute at low priority.
+ */
+public class StartupSource implements MetricSource<List<SystemInfoTable.StartupInfo>> {
+    public static final String NAME = "Startup";
+
+    private final SystemdStartupDetector systemdDetector = new SystemdStartupDetector();
+
+    @Override
+    public String getName() { return NAME; }
+
+    @Override
+    public long getIntervalMillis() { return 60_000; }
+
+    @Override
+    public Priority getPriority() { return Priority.LOW; }
+
+    @Override
+    public List<SystemInfoTable.StartupInfo> collect() {
+        List<SystemInfoTable.StartupInfo> startupApps = new ArrayList<>();
+        String osName = System.getProperty("os.name").toLowerCase();
+
+        if (osName.contains("win")) {
+            String userStartupFolder = System.getenv("APPDATA") + "\\Microsoft\\Windows\\Start Menu\\Programs\\Startup";
+            String allUsersStartupFolder = System.getenv("PROGRAMDATA") + "\\Microsoft\\Windows\\Start Menu\\Programs\\Startup";
+            startupApps.addAll(getStartupAppsFromFolder(userStartupFolder));
+            startupApps.addAll(getStartupAppsFromFolder(allUsersStartupFolder));
+        } else if (osName.contains("linux")) {
+            String userAutostartFolder = System.getProperty("user.home") + "/.config/autostart";
+            String systemAutostartFolder = "/etc/xdg/autostart";
+            startupApps.addAll(getStartupAppsFromFolder(userAutostartFolder));
+            startupApps.addAll(getStartupAppsFromFolder(systemAutostartFolder));
+
+            startupApps.addAll(systemdDetector.getSystemdStartupServices());
+            startupApps.addAll(systemdDetector.getCronJobsAtReboot());
+            startupApps.addAll(systemdDetector.getRcLocalEntries());
+        }
+
+        return startupApps;
+    }
+
+    private List<SystemInfoTable.StartupInfo> getStartupAppsFromFolder(String folderPath) {
+        List<SystemInfoTable.StartupInfo> apps = new ArrayList<>();
+        File folder = new File(folderPath);
+        if (folder.exists() && folder.isDirectory()) {
+            File[] files = folder.listFiles((dir, name) -> name.endsWith(".desktop") || name.endsWith(".lnk"));
+            if (files != null) {
+                for (File file : files) {
+                    apps.add(new SystemInfoTable.StartupInfo(file.getName(), file.getAbsolutePath()));
+                }
+            }
+        }
+        return apps;
+    }
+}
@@ -1,6 +1,5 @@
 package monitor.ui;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -23,56 +22,117 @@ import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.PieChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TitledPane;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import oshi.SystemInfo;
 import oshi.hardware.CentralProcessor;
-import oshi.hardware.GlobalMemory;
-import oshi.hardware.HardwareAbstractionLayer;
-import oshi.hardware.NetworkIF;
-import oshi.software.os.FileSystem;
-import oshi.software.os.OSFileStore;
-import oshi.software.os.OSProcess;
-import oshi.software.os.OperatingSystem;
 
 public class SystemInfoTable extends Application {
+    static {
+        // The launcher loads this class before main, and before anything creates a SystemInfo
+        ProcPaths.configure();
+    }
+
     private final ObservableList<ProcessInfo> processData = FXCollections.observableArrayList();
     private final ObservableList<ResourceInfo> resourceData = FXCollections.observableArrayList();
     private final ObservableList<FileSystemInfo> fileSystemData = FXCollections.observableArrayList();
-    private final ObservableList<ResourceInfo> cpuCoreData = FXCollections.observableArrayList();
     private final ObservableList<StartupInfo> startupData = FXCollections.observableArrayList();
     
     private Timeline refreshTimeline;
+    private Timeline detailRefreshTimeline;
+
+    private final ProcessDetailLoader detailLoader = new ProcessDetailLoader();
+    private boolean detailLoadInFlight;
+    // The process most recently asked for while a load was in flight, or null
+    private ProcessInfo detailPending;
+    private Label detailSummaryLabel;
+    private TextArea detailCommandLine;
+    private TextArea detailCgroup;
+    private TextArea detailJvm;
+    private final ObservableList<String> detailEnvironment = FXCollections.observableArrayList();
+    private final ObservableList<String> detailOpenFiles = FXCollections.observableArrayList();
+    private final ObservableList<String> detailMemoryMaps = FXCollections.observableArrayList();
+
+    private final ThreadSampler threadSampler = new ThreadSampler();
+    private final ObservableList<ThreadSampler.ThreadInfo> threadData = FXCollections.observableArrayList();
+    private boolean threadSampleInFlight;
+
+    private final SmapsSampler smapsSampler = new SmapsSampler();
+
+    private final ProcessAnomalyTracker anomalyTracker = new ProcessAnomalyTracker();
+    private final ObservableList<ProcessAnomalyTracker.AnomalyInfo> suspiciousData = FXCollections.observableArrayList();
+
+    private WebBackend webBackend;
     
     private XYChart.Series<String, Number> cpuChartSeries;
     private PieChart memoryChart;
     private PieChart swapChart;
-    private TableView<ResourceInfo> cpuTableView;
+    private CpuCoreHistory coreHistory;
+    private CpuCoreHeatmap coreHeatmap;
+    private HeatmapCanvas coreHeatmapCanvas;
 
-    private final Map<Integer, OSProcess> previousProcessMap = new HashMap<>();
-    private long previousTimestamp;
     private TableView<ProcessInfo> processTable; // Thêm biến instance
 
     private static final int MAX_DATA_POINTS = 60; // For 60 seconds of history
+    private static final int DETAIL_REFRESH_SECONDS = 3;
     private final XYChart.Series<String, Number> cpuHistory = new XYChart.Series<>();
     private final XYChart.Series<String, Number> memHistory = new XYChart.Series<>();
     private final XYChart.Series<String, Number> swapHistory = new XYChart.Series<>();
     private final XYChart.Series<String, Number> netUpHistory = new XYChart.Series<>();
     private final XYChart.Series<String, Number> netDownHistory = new XYChart.Series<>();
-
-    private long[] prevTotalTicks;
-    private long[][] prevProcTicks;
-    private long networkTimestamp;
-    private long bytesSent;
-    private long bytesRecv;
+    private final XYChart.Series<String, Number> cpuPressureHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> memPressureHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> ioPressureHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> memFullPressureHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> ioFullPressureHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> loadHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> runQueueHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> blockedHistory = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> contextSwitchHistory = new XYChart.Series<>();
+    private LineChart<String, Number> pressureChart;
+
+    private final Map<String, List<XYChart.Series<String, Number>>> interfaceHistory = new HashMap<>();
+    private LineChart<String, Number> interfaceChart;
+
+    private final SocketInodeIndex socketIndex = new SocketInodeIndex();
+
+    private final ProcessLifecycleTracker lifecycleTracker = new ProcessLifecycleTracker();
+    private final ObservableList<ProcessLifecycleTracker.LifecycleEvent> lifecycleData = FXCollections.observableArrayList();
+    private final ObservableList<ProcessLifecycleTracker.ChurnInfo> churnData = FXCollections.observableArrayList();
+    private Label lifecycleLabel;
+    private Label socketLabel;
+    private static final int CHURN_WINDOW_SECONDS = 10;
+    private static final int LIFECYCLE_EVENTS_SHOWN = 500;
+
+    private final ObservableList<NumaSource.NodeInfo> numaNodeData = FXCollections.observableArrayList();
+    private final ObservableList<NumaSource.PlacementInfo> numaPlacementData = FXCollections.observableArrayList();
+    private final XYChart.Series<String, Number> nodeCpuSeries = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> nodeMemorySeries = new XYChart.Series<>();
+
+    private final InterruptHeatmap interruptHeatmap = new InterruptHeatmap();
+    private HeatmapCanvas interruptCanvas;
+    private Label interruptLabel;
+    private final ObservableList<InterruptSource.IrqInfo> topIrqData = FXCollections.observableArrayList();
+
+    private final MetricScheduler scheduler = new MetricScheduler();
+    private final ObservableList<MetricScheduler.SourceStats> collectorStats = FXCollections.observableArrayList();
+    private TitledPane collectorPane;
 
     public static class ResourceSnapshot {
         final double cpuLoad;
@@ -80,15 +140,21 @@ public class SystemInfoTable extends Application {
         final double swapLoad;
         final double netUp;
         final double netDown;
-        final List<ResourceInfo> cpuCores;
+        // Interface name -> {up, down} in KB/s
+        final Map<String, double[]> interfaceRates;
+        final List<ResourceInfo> memoryBreakdown;
+        final SaturationCollector.SaturationSnapshot saturation;
 
-        public ResourceSnapshot(double cpuLoad, double memLoad, double swapLoad, double netUp, double netDown, List<ResourceInfo> cpuCores) {
+        public ResourceSnapshot(double cpuLoad, double memLoad, double swapLoad, double netUp, double netDown,
+                                Map<String, double[]> interfaceRates, List<ResourceInfo> memoryBreakdown, SaturationCollector.SaturationSnapshot saturation) {
             this.cpuLoad = cpuLoad;
             this.memLoad = memLoad;
             this.swapLoad = swapLoad;
             this.netUp = netUp;
             this.netDown = netDown;
-            this.cpuCores = cpuCores;
+            this.interfaceRates = interfaceRates;
+            this.memoryBreakdown = memoryBreakdown;
+            this.saturation = saturation;
         }
     }
 
@@ -105,13 +171,29 @@ public class SystemInfoTable extends Application {
         private final Double virtualMemValue;
         private final String diskRead;
         private final Double diskReadValue;
-
-        public ProcessInfo(String name, String user, String pid, 
+        private final long startTime;
+        private final String pss;
+        private final String uss;
+        private final String swap;
+        private final String memAge;
+        private final Integer connections;
+        private final JvmPerfReader.JvmStats jvm;
+        private final String heap;
+        private final String gcPercent;
+        private final String gcCount;
+        private final String jvmThreads;
+        private final String safepointTime;
+
+        public ProcessInfo(String name, String user, String pid, long startTime,
                           double cpuValue, double rssValue, 
-                          double virtualMemValue, double diskReadValue) {
+                          double virtualMemValue, double diskReadValue,
+                          SmapsSampler.MemoryDetail memoryDetail, int connections,
+                          JvmPerfReader.JvmStats jvm) {
             this.name = name;
             this.user = user;
             this.pid = pid;
+            this.startTime = startTime;
+            this.connections = connections;
             this.cpuValue = cpuValue;
             this.cpu = String.format("%.2f", cpuValue);
             this.rssValue = rssValue;
@@ -120,11 +202,37 @@ public class SystemInfoTable extends Application {
             this.virtualMem = String.format("%.2f", virtualMemValue);
             this.diskReadValue = diskReadValue;
             this.diskRead = String.format("%.2f", diskReadValue);
+            if (memoryDetail != null) {
+                this.pss = String.format("%.2f", memoryDetail.getPssKb() / 1024.0);
+                this.uss = String.format("%.2f", memoryDetail.getUssKb() / 1024.0);
+                this.swap = String.format("%.2f", memoryDetail.getSwapKb() / 1024.0);
+                this.memAge = String.valueOf((System.currentTimeMillis() - memoryDetail.getSampledAt()) / 1000);
+            } else {
+                this.pss = "";
+                this.uss = "";
+                this.swap = "";
+                this.memAge = "";
+            }
+            this.jvm = jvm;
+            if (jvm != null) {
+                this.heap = String.format("%.1f / %.1f", jvm.getHeapUsedMb(), jvm.getHeapCapacityMb());
+                this.gcPercent = String.format("%.1f", jvm.getGcPercent());
+                this.gcCount = String.valueOf(jvm.getGcCount());
+                this.jvmThreads = String.valueOf(jvm.getThreads());
+                this.safepointTime = String.format("%.0f", jvm.getSafepointMillis());
+            } else {
+                this.heap = "";
+                this.gcPercent = "";
+                this.gcCount = "";
+                this.jvmThreads = "";
+                this.safepointTime = "";
+            }
         }
 
         public String getName() { return name; }
         public String getUser() { return user; }
         public String getPid() { return pid; }
+        public long getStartTime() { return startTime; }
         public String getCpu() { return cpu; }
         public Double getCpuValue() { return cpuValue; }
         public String getRss() { return rss; }
@@ -133,6 +241,17 @@ public class SystemInfoTable extends Application {
         public Double getVirtualMemValue() { return virtualMemValue; }
         public String getDiskRead() { return diskRead; }
         public Double getDiskReadValue() { return diskReadValue; }
+        public String getPss() { return pss; }
+        public String getUss() { return uss; }
+        public String getSwap() { return swap; }
+        public String getMemAge() { return memAge; }
+        public Integer getConnections() { return connections; }
+        public JvmPerfReader.JvmStats getJvm() { return jvm; }
+        public String getHeap() { return heap; }
+        public String getGcPercent() { return gcPercent; }
+        public String getGcCount() { return gcCount; }
+        public String getJvmThreads() { return jvmThreads; }
+        public String getSafepointTime() { return safepointTime; }
 
         @Override
         public boolean equals(Object o) {
@@ -177,6 +296,7 @@ public class SystemInfoTable extends Application {
         private final String totalSpace;
         private final String usedSpace;
         private final String usableSpace;
+        private final double usedPercent;
 
         public FileSystemInfo(String mountPoint, String name, String type, long totalSpace, long usedSpace, long usableSpace) {
             this.mountPoint = mountPoint;
@@ -185,6 +305,7 @@ public class SystemInfoTable extends Application {
             this.totalSpace = String.format("%.2f GB", totalSpace / (1024.0 * 1024 * 1024));
             this.usedSpace = String.format("%.2f GB", usedSpace / (1024.0 * 1024 * 1024));
             this.usableSpace = String.format("%.2f GB", usableSpace / (1024.0 * 1024 * 1024));
+            this.usedPercent = totalSpace > 0 ? usedSpace * 100.0 / totalSpace : 0.0;
         }
 
         public String getMountPoint() { return mountPoint; }
@@ -193,6 +314,7 @@ public class SystemInfoTable extends Application {
         public String getTotalSpace() { return totalSpace; }
         public String getUsedSpace() { return usedSpace; }
         public String getUsableSpace() { return usableSpace; }
+        public double getUsedPercent() { return usedPercent; }
     }
     
     public static class StartupInfo {
@@ -208,57 +330,6 @@ public class SystemInfoTable extends Application {
         public String getPath() { return path; }
     }
 
-    // ... existing getProcessInfoFromOSHI, getStartupApplications, getStartupAppsFromFolder ...
-    private List<ProcessInfo> getProcessInfoFromOSHI() {
-        SystemInfo si = new SystemInfo();
-        OperatingSystem os = si.getOperatingSystem();
-        HardwareAbstractionLayer hardware = si.getHardware();
-        CentralProcessor processor = hardware.getProcessor();
-        int logicalProcessorCount = processor.getLogicalProcessorCount();
-
-        List<OSProcess> processes = os.getProcesses(null, OperatingSystem.ProcessSorting.CPU_DESC, 0);
-        long currentTimestamp = System.currentTimeMillis();
-        
-        List<ProcessInfo> result = new ArrayList<>();
-
-        for (OSProcess p : processes) {
-            double cpu = 0.0;
-            if (previousProcessMap.containsKey(p.getProcessID()) && previousTimestamp > 0) {
-                OSProcess old = previousProcessMap.get(p.getProcessID());
-                if (old != null) {
-                    long elapsed = currentTimestamp - previousTimestamp;
-                    if (elapsed > 0) {
-                        long cputime = p.getKernelTime() + p.getUserTime();
-                        long oldcputime = old.getKernelTime() + old.getUserTime();
-                        cpu = ((cputime - oldcputime) * 100.0 / elapsed) / logicalProcessorCount;
-                    }
-                }
-            }
-            
-            double rssMB = p.getResidentSetSize() / (1024.0 * 1024);
-            double virtualMemMB = p.getVirtualSize() / (1024.0 * 1024);
-            double diskReadMB = p.getBytesRead() / (1024.0 * 1024);
-        
-            result.add(new ProcessInfo(
-                p.getName(),
-                p.getUser(),
-                String.valueOf(p.getProcessID()),
-                Math.max(0.0, cpu),
-                rssMB,
-                virtualMemMB,
-                diskReadMB
-            ));
-        }
-        
-        previousProcessMap.clear();
-        for (OSProcess p : processes) {
-            previousProcessMap.put(p.getProcessID(), p);
-        }
-        previousTimestamp = currentTimestamp;
-        
-        return result;
-    }
-
     private void killProcess(String pid) {
         String osName = System.getProperty("os.name").toLowerCase();
         String command;
@@ -280,7 +351,7 @@ public class SystemInfoTable extends Application {
             }
         };
 
-        killTask.setOnSucceeded(e -> Platform.runLater(this::refreshProcessData));
+        killTask.setOnSucceeded(e -> scheduler.requestNow(ProcessSource.NAME));
 
         killTask.setOnFailed(e -> {
             Platform.runLater(() -> {
@@ -295,197 +366,452 @@ public class SystemInfoTable extends Application {
         new Thread(killTask).start();
     }
 
-    private List<StartupInfo> getStartupApplications() {
-        List<StartupInfo> startupApps = new ArrayList<>();
-        String osName = System.getProperty("os.name").toLowerCase();
-
-        if (osName.contains("win")) {
-            String userStartupFolder = System.getenv("APPDATA") + "\\Microsoft\\Windows\\Start Menu\\Programs\\Startup";
-            String allUsersStartupFolder = System.getenv("PROGRAMDATA") + "\\Microsoft\\Windows\\Start Menu\\Programs\\Startup";
-            startupApps.addAll(getStartupAppsFromFolder(userStartupFolder));
-            startupApps.addAll(getStartupAppsFromFolder(allUsersStartupFolder));
-        } else if (osName.contains("linux")) {
-            String userAutostartFolder = System.getProperty("user.home") + "/.config/autostart";
-            String systemAutostartFolder = "/etc/xdg/autostart";
-            startupApps.addAll(getStartupAppsFromFolder(userAutostartFolder));
-            startupApps.addAll(getStartupAppsFromFolder(systemAutostartFolder));
-            
-            SystemdStartupDetector systemdDetector = new SystemdStartupDetector();
-            startupApps.addAll(systemdDetector.getSystemdStartupServices());
-            
-            startupApps.addAll(systemdDetector.getCronJobsAtReboot());
-            
-            startupApps.addAll(systemdDetector.getRcLocalEntries());
+    private void refreshProcessDetails(boolean refresh) {
+        ProcessInfo selected = processTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            showProcessDetails(null);
+            return;
+        }
+        if (detailLoadInFlight) {
+            detailPending = selected;
+            return;
         }
+        detailLoadInFlight = true;
+        detailPending = null;
 
-        return startupApps;
-    }
+        int pid = Integer.parseInt(selected.getPid());
+        long startTime = selected.getStartTime();
+        Task<ProcessDetailLoader.ProcessDetails> task = new Task<ProcessDetailLoader.ProcessDetails>() {
+            @Override
+            protected ProcessDetailLoader.ProcessDetails call() throws Exception {
+                return detailLoader.getDetails(pid, startTime, refresh);
+            }
+        };
 
-    private List<StartupInfo> getStartupAppsFromFolder(String folderPath) {
-        List<StartupInfo> apps = new ArrayList<>();
-        File folder = new File(folderPath);
-        if (folder.exists() && folder.isDirectory()) {
-            File[] files = folder.listFiles((dir, name) -> name.endsWith(".desktop") || name.endsWith(".lnk"));
-            if (files != null) {
-                for (File file : files) {
-                    apps.add(new StartupInfo(file.getName(), file.getAbsolutePath()));
+        task.setOnSucceeded(e -> {
+            detailLoadInFlight = false;
+            ProcessInfo current = processTable.getSelectionModel().getSelectedItem();
+            // Drop the result if the selection moved on while loading
+            if (isSameProcess(current, selected)) {
+                showProcessDetails(task.getValue());
+                if (task.getValue() == null) {
+                    detailSummaryLabel.setText("Process " + selected.getPid() + " is no longer running");
                 }
             }
-        }
-        return apps;
-    }
+            loadPendingDetails(selected);
+        });
 
-    private ResourceSnapshot getSystemResources() {
-        SystemInfo si = new SystemInfo();
-        HardwareAbstractionLayer hardware = si.getHardware();
-        CentralProcessor processor = hardware.getProcessor();
-
-        // CPU calculation
-        long[] currentTotalTicks = processor.getSystemCpuLoadTicks();
-        double cpuLoad = 0.0;
-        if (prevTotalTicks != null) {
-            cpuLoad = processor.getSystemCpuLoadBetweenTicks(prevTotalTicks) * 100;
-        }
-        prevTotalTicks = currentTotalTicks;
-
-        // Per-core CPU
-        List<ResourceInfo> coreData = new ArrayList<>();
-        long[][] currentProcTicks = processor.getProcessorCpuLoadTicks();
-        if (prevProcTicks != null) {
-            double[] coreLoads = processor.getProcessorCpuLoadBetweenTicks(prevProcTicks);
-            for (int i = 0; i < coreLoads.length; i++) {
-                double coreLoad = coreLoads[i] * 100;
-                coreData.add(new ResourceInfo(
-                    String.format("CPU Core %d", i),
-                    String.format("%.2f%%", coreLoad),
-                    coreLoad > 50 ? "High" : coreLoad > 20 ? "Medium" : "Low",
-                    "100%",
-                    coreLoad
-                ));
-            }
-        }
-        prevProcTicks = currentProcTicks;
-
-        // Memory usage
-        GlobalMemory memory = hardware.getMemory();
-        long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
-        double memLoad = totalMemory > 0 ? (double)(totalMemory - availableMemory) / totalMemory * 100.0 : 0.0;
-
-        // Swap usage
-        long totalSwap = memory.getVirtualMemory().getSwapTotal();
-        long usedSwap = memory.getVirtualMemory().getSwapUsed();
-        double swapLoad = totalSwap > 0 ? (double)usedSwap / totalSwap * 100.0 : 0.0;
-
-        // Network usage
-        long currentBytesSent = 0;
-        long currentBytesRecv = 0;
-        for (NetworkIF net : hardware.getNetworkIFs()) {
-            currentBytesSent += net.getBytesSent();
-            currentBytesRecv += net.getBytesRecv();
-        }
-        long currentNetworkTimestamp = System.currentTimeMillis();
-        double netUp = 0.0;
-        double netDown = 0.0;
-        if (networkTimestamp > 0) {
-            long timeDiff = currentNetworkTimestamp - networkTimestamp;
-            if (timeDiff > 0) {
-                netUp = (currentBytesSent - this.bytesSent) / (timeDiff / 1000.0) / 1024.0; // KB/s
-                netDown = (currentBytesRecv - this.bytesRecv) / (timeDiff / 1000.0) / 1024.0; // KB/s
-            }
-        }
-        this.networkTimestamp = currentNetworkTimestamp;
-        this.bytesSent = currentBytesSent;
-        this.bytesRecv = currentBytesRecv;
+        task.setOnFailed(e -> {
+            detailLoadInFlight = false;
+            System.err.println("Failed to load process details: " + task.getException().getMessage());
+            loadPendingDetails(selected);
+        });
 
-        return new ResourceSnapshot(Math.max(0.0, cpuLoad), memLoad, swapLoad, Math.max(0.0, netUp), Math.max(0.0, netDown), coreData);
+        new Thread(task).start();
     }
-    
-    private List<FileSystemInfo> getFileSystemInfo() {
-        List<FileSystemInfo> filesystems = new ArrayList<>();
-        SystemInfo si = new SystemInfo();
-        FileSystem fileSystem = si.getOperatingSystem().getFileSystem();
-        
-        for (OSFileStore fs : fileSystem.getFileStores()) {
-            String mountPoint = fs.getMount();
-            String name = fs.getName();
-            String type = fs.getType();
-            long totalSpace = fs.getTotalSpace();
-            long usableSpace = fs.getUsableSpace();
-            long usedSpace = totalSpace - usableSpace;
-            
-            filesystems.add(new FileSystemInfo(
-                mountPoint,
-                name,
-                type,
-                totalSpace,
-                usedSpace,
-                usableSpace
-            ));
+
+    /**
+     * Starts the load that was asked for while the previous one ran, unless it was for the
+     * process just loaded.
+     */
+    private void loadPendingDetails(ProcessInfo loaded) {
+        ProcessInfo pending = detailPending;
+        detailPending = null;
+        if (pending != null && !isSameProcess(pending, loaded)) {
+            refreshProcessDetails(false);
         }
-        
-        return filesystems;
     }
-    
-    private void refreshProcessData() {
-        Task<List<ProcessInfo>> task = new Task<List<ProcessInfo>>() {
+
+    private static boolean isSameProcess(ProcessInfo a, ProcessInfo b) {
+        return a != null && b != null && a.getPid().equals(b.getPid()) && a.getStartTime() == b.getStartTime();
+    }
+
+    private void refreshThreadData() {
+        if (threadSampleInFlight) return;
+        threadSampleInFlight = true;
+
+        Task<List<ThreadSampler.ThreadInfo>> task = new Task<List<ThreadSampler.ThreadInfo>>() {
             @Override
-            protected List<ProcessInfo> call() throws Exception {
-                return getProcessInfoFromOSHI();
+            protected List<ThreadSampler.ThreadInfo> call() throws Exception {
+                return threadSampler.sample();
             }
         };
-        
-        task.setOnSucceeded(e -> {
-            List<ProcessInfo> newData = task.getValue();
-            Platform.runLater(() -> {
-                ProcessInfo selectedItem = processTable.getSelectionModel().getSelectedItem();
-                List<TableColumn<ProcessInfo, ?>> sortOrder = new ArrayList<>(processTable.getSortOrder());
-
-                processData.clear();
-                processData.addAll(newData);
 
-                if (!sortOrder.isEmpty()) {
-                    processTable.getSortOrder().addAll(sortOrder);
-                    processTable.sort();
-                }
-
-                if (selectedItem != null) {
-                    processTable.getSelectionModel().select(selectedItem);
-                    processTable.scrollTo(selectedItem);
-                }
-            });
+        task.setOnSucceeded(e -> {
+            threadSampleInFlight = false;
+            threadData.setAll(task.getValue());
         });
-        
+
         task.setOnFailed(e -> {
-            System.err.println("Failed to refresh process data: " + task.getException().getMessage());
+            threadSampleInFlight = false;
+            System.err.println("Failed to sample threads: " + task.getException().getMessage());
         });
-        
+
         new Thread(task).start();
     }
-    
-    private void refreshResourceData() {
-        Task<ResourceSnapshot> task = new Task<ResourceSnapshot>() {
+
+    private TableView<ThreadSampler.ThreadInfo> createThreadTable() {
+        TableView<ThreadSampler.ThreadInfo> threadTable = new TableView<>(threadData);
+        TableColumn<ThreadSampler.ThreadInfo, Integer> tidCol = new TableColumn<>("TID");
+        tidCol.setCellValueFactory(new PropertyValueFactory<>("tid"));
+        TableColumn<ThreadSampler.ThreadInfo, String> threadNameCol = new TableColumn<>("Name");
+        threadNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        threadNameCol.setPrefWidth(180);
+        TableColumn<ThreadSampler.ThreadInfo, String> stateCol = new TableColumn<>("State");
+        stateCol.setCellValueFactory(new PropertyValueFactory<>("state"));
+        TableColumn<ThreadSampler.ThreadInfo, Double> threadCpuCol = new TableColumn<>("CPU (% of core)");
+        threadCpuCol.setCellValueFactory(new PropertyValueFactory<>("cpu"));
+        threadCpuCol.setCellFactory(column -> new javafx.scene.control.TableCell<ThreadSampler.ThreadInfo, Double>() {
             @Override
-            protected ResourceSnapshot call() throws Exception {
-                return getSystemResources();
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : String.format("%.2f", item));
             }
-        };
-        
-        task.setOnSucceeded(e -> {
-            ResourceSnapshot snapshot = task.getValue();
-            Platform.runLater(() -> {
-                updateHistoryCharts(snapshot);
-            });
         });
-        
-        task.setOnFailed(e -> {
-            System.err.println("Failed to refresh resource data: " + task.getException().getMessage());
-            task.getException().printStackTrace();
+        threadCpuCol.setPrefWidth(110);
+        TableColumn<ThreadSampler.ThreadInfo, String> historyCol = new TableColumn<>("Last 30s");
+        historyCol.setCellValueFactory(new PropertyValueFactory<>("history"));
+        historyCol.setPrefWidth(220);
+        threadTable.getColumns().addAll(tidCol, threadNameCol, stateCol, threadCpuCol, historyCol);
+        return threadTable;
+    }
+
+    private VBox createLifecyclePane() {
+        TableView<ProcessLifecycleTracker.ChurnInfo> churnTable = new TableView<>(churnData);
+        churnTable.setPlaceholder(new Label("No processes started or exited in the last " + CHURN_WINDOW_SECONDS + " seconds"));
+        TableColumn<ProcessLifecycleTracker.ChurnInfo, String> nameCol = new TableColumn<>("Executable");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setPrefWidth(180);
+        TableColumn<ProcessLifecycleTracker.ChurnInfo, Double> startsCol = new TableColumn<>("Starts/s");
+        startsCol.setCellValueFactory(new PropertyValueFactory<>("startsPerSec"));
+        TableColumn<ProcessLifecycleTracker.ChurnInfo, Double> exitsCol = new TableColumn<>("Exits/s");
+        exitsCol.setCellValueFactory(new PropertyValueFactory<>("exitsPerSec"));
+        for (TableColumn<ProcessLifecycleTracker.ChurnInfo, Double> col : java.util.Arrays.asList(startsCol, exitsCol)) {
+            col.setCellFactory(column -> new javafx.scene.control.TableCell<ProcessLifecycleTracker.ChurnInfo, Double>() {
+                @Override
+                protected void updateItem(Double item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty || item == null ? null : String.format("%.2f", item));
+                }
+            });
+        }
+        TableColumn<ProcessLifecycleTracker.ChurnInfo, Integer> shortCol = new TableColumn<>("Lived < 1 s");
+        shortCol.setCellValueFactory(new PropertyValueFactory<>("shortLived"));
+        TableColumn<ProcessLifecycleTracker.ChurnInfo, Long> lifetimeCol = new TableColumn<>("Avg Lifetime (ms)");
+        lifetimeCol.setCellValueFactory(new PropertyValueFactory<>("averageLifetimeMillis"));
+        lifetimeCol.setPrefWidth(120);
+        TableColumn<ProcessLifecycleTracker.ChurnInfo, Long> cpuCol = new TableColumn<>("Exit CPU (ms)");
+        cpuCol.setCellValueFactory(new PropertyValueFactory<>("exitCpuMillis"));
+        churnTable.getColumns().addAll(nameCol, startsCol, exitsCol, shortCol, lifetimeCol, cpuCol);
+        churnTable.setPrefHeight(220);
+
+        TableView<ProcessLifecycleTracker.LifecycleEvent> eventTable = new TableView<>(lifecycleData);
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, String> timeCol = new TableColumn<>("Time");
+        timeCol.setCellValueFactory(new PropertyValueFactory<>("time"));
+        timeCol.setPrefWidth(100);
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, String> typeCol = new TableColumn<>("Event");
+        typeCol.setCellValueFactory(new PropertyValueFactory<>("type"));
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, Integer> pidCol = new TableColumn<>("PID");
+        pidCol.setCellValueFactory(new PropertyValueFactory<>("pid"));
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, Integer> ppidCol = new TableColumn<>("Parent");
+        ppidCol.setCellValueFactory(new PropertyValueFactory<>("parentPid"));
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, String> eventNameCol = new TableColumn<>("Name");
+        eventNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        eventNameCol.setPrefWidth(160);
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, Long> eventLifetimeCol = new TableColumn<>("Lifetime (ms)");
+        eventLifetimeCol.setCellValueFactory(new PropertyValueFactory<>("lifetimeMillis"));
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, Long> eventCpuCol = new TableColumn<>("CPU (ms)");
+        eventCpuCol.setCellValueFactory(new PropertyValueFactory<>("cpuMillis"));
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, Integer> exitCol = new TableColumn<>("Exit Code");
+        exitCol.setCellValueFactory(new PropertyValueFactory<>("exitCode"));
+        TableColumn<ProcessLifecycleTracker.LifecycleEvent, String> sourceCol = new TableColumn<>("Source");
+        sourceCol.setCellValueFactory(new PropertyValueFactory<>("source"));
+        eventTable.getColumns().addAll(timeCol, typeCol, pidCol, ppidCol, eventNameCol, eventLifetimeCol, eventCpuCol, exitCol, sourceCol);
+
+        lifecycleLabel = new Label();
+        VBox box = new VBox(5, lifecycleLabel, new Label("Churn by executable (last " + CHURN_WINDOW_SECONDS + " s)"), churnTable,
+                new Label("Recent events"), eventTable);
+        box.setPadding(new Insets(10));
+        VBox.setVgrow(eventTable, javafx.scene.layout.Priority.ALWAYS);
+        return box;
+    }
+
+    private VBox createTopologyPane() {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis(0, 100, 20);
+        yAxis.setLabel("%");
+        BarChart<String, Number> nodeChart = new BarChart<>(xAxis, yAxis);
+        nodeChart.setTitle("Load per NUMA Node");
+        nodeChart.setAnimated(false);
+        nodeChart.setPrefHeight(220);
+        nodeCpuSeries.setName("CPU");
+        nodeMemorySeries.setName("Memory");
+        nodeChart.getData().addAll(nodeCpuSeries, nodeMemorySeries);
+
+        TableView<NumaSource.NodeInfo> nodeTable = new TableView<>(numaNodeData);
+        nodeTable.setPlaceholder(new Label("No NUMA topology exposed under /sys/devices/system/node"));
+        TableColumn<NumaSource.NodeInfo, Integer> nodeCol = new TableColumn<>("Node");
+        nodeCol.setCellValueFactory(new PropertyValueFactory<>("node"));
+        TableColumn<NumaSource.NodeInfo, String> cpusCol = new TableColumn<>("CPUs");
+        cpusCol.setCellValueFactory(new PropertyValueFactory<>("cpus"));
+        TableColumn<NumaSource.NodeInfo, String> packagesCol = new TableColumn<>("Sockets");
+        packagesCol.setCellValueFactory(new PropertyValueFactory<>("packages"));
+        TableColumn<NumaSource.NodeInfo, Double> cpuCol = new TableColumn<>("CPU (%)");
+        cpuCol.setCellValueFactory(new PropertyValueFactory<>("cpuLoad"));
+        TableColumn<NumaSource.NodeInfo, Double> totalCol = new TableColumn<>("Memory (MB)");
+        totalCol.setCellValueFactory(new PropertyValueFactory<>("memTotalMb"));
+        TableColumn<NumaSource.NodeInfo, Double> usedCol = new TableColumn<>("Used (MB)");
+        usedCol.setCellValueFactory(new PropertyValueFactory<>("memUsedMb"));
+        TableColumn<NumaSource.NodeInfo, Double> anonCol = new TableColumn<>("Anon (MB)");
+        anonCol.setCellValueFactory(new PropertyValueFactory<>("anonPagesMb"));
+        TableColumn<NumaSource.NodeInfo, Double> fileCol = new TableColumn<>("File (MB)");
+        fileCol.setCellValueFactory(new PropertyValueFactory<>("filePagesMb"));
+        TableColumn<NumaSource.NodeInfo, Double> hitCol = new TableColumn<>("Hits/s");
+        hitCol.setCellValueFactory(new PropertyValueFactory<>("hitsPerSec"));
+        TableColumn<NumaSource.NodeInfo, Double> missCol = new TableColumn<>("Misses/s");
+        missCol.setCellValueFactory(new PropertyValueFactory<>("missesPerSec"));
+        TableColumn<NumaSource.NodeInfo, Double> foreignCol = new TableColumn<>("Foreign/s");
+        foreignCol.setCellValueFactory(new PropertyValueFactory<>("foreignPerSec"));
+        TableColumn<NumaSource.NodeInfo, Double> localCol = new TableColumn<>("Local (%)");
+        localCol.setCellValueFactory(new PropertyValueFactory<>("localPercent"));
+        for (TableColumn<NumaSource.NodeInfo, Double> col : java.util.Arrays.asList(cpuCol, totalCol, usedCol, anonCol, fileCol, hitCol, missCol, foreignCol, localCol)) {
+            col.setCellFactory(column -> new javafx.scene.control.TableCell<NumaSource.NodeInfo, Double>() {
+                @Override
+                protected void updateItem(Double item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty || item == null ? null : String.format("%.1f", item));
+                }
+            });
+        }
+        nodeTable.getColumns().addAll(nodeCol, cpusCol, packagesCol, cpuCol, totalCol, usedCol, anonCol, fileCol, hitCol, missCol, foreignCol, localCol);
+        nodeTable.setPrefHeight(180);
+
+        TableView<NumaSource.PlacementInfo> placementTable = new TableView<>(numaPlacementData);
+        placementTable.setPlaceholder(new Label("Select or pin a process to see where its memory lives"));
+        TableColumn<NumaSource.PlacementInfo, Integer> pidCol = new TableColumn<>("PID");
+        pidCol.setCellValueFactory(new PropertyValueFactory<>("pid"));
+        TableColumn<NumaSource.PlacementInfo, String> nameCol = new TableColumn<>("Name");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setPrefWidth(140);
+        TableColumn<NumaSource.PlacementInfo, Double> sizeCol = new TableColumn<>("Resident (MB)");
+        sizeCol.setCellValueFactory(new PropertyValueFactory<>("totalMb"));
+        TableColumn<NumaSource.PlacementInfo, String> perNodeCol = new TableColumn<>("Per Node");
+        perNodeCol.setCellValueFactory(new PropertyValueFactory<>("perNode"));
+        perNodeCol.setPrefWidth(260);
+        TableColumn<NumaSource.PlacementInfo, Double> remoteCol = new TableColumn<>("Off Main Node (%)");
+        remoteCol.setCellValueFactory(new PropertyValueFactory<>("remotePercent"));
+        remoteCol.setPrefWidth(120);
+        for (TableColumn<NumaSource.PlacementInfo, Double> col : java.util.Arrays.asList(sizeCol, remoteCol)) {
+            col.setCellFactory(column -> new javafx.scene.control.TableCell<NumaSource.PlacementInfo, Double>() {
+                @Override
+                protected void updateItem(Double item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty || item == null ? null : String.format("%.1f", item));
+                }
+            });
+        }
+        TableColumn<NumaSource.PlacementInfo, String> cpusAllowedCol = new TableColumn<>("CPUs Allowed");
+        cpusAllowedCol.setCellValueFactory(new PropertyValueFactory<>("cpusAllowed"));
+        TableColumn<NumaSource.PlacementInfo, String> memsAllowedCol = new TableColumn<>("Nodes Allowed");
+        memsAllowedCol.setCellValueFactory(new PropertyValueFactory<>("memsAllowed"));
+        placementTable.getColumns().addAll(pidCol, nameCol, sizeCol, perNodeCol, remoteCol, cpusAllowedCol, memsAllowedCol);
+
+        VBox box = new VBox(5, nodeChart, nodeTable, new Label("Process placement (selected and pinned processes)"), placementTable);
+        box.setPadding(new Insets(10));
+        VBox.setVgrow(placementTable, javafx.scene.layout.Priority.ALWAYS);
+        return box;
+    }
+
+    private void showNuma(NumaSource.NumaSnapshot snapshot) {
+        numaNodeData.setAll(snapshot.nodes);
+        numaPlacementData.setAll(snapshot.placements);
+        List<XYChart.Data<String, Number>> cpu = new ArrayList<>();
+        List<XYChart.Data<String, Number>> memory = new ArrayList<>();
+        for (NumaSource.NodeInfo node : snapshot.nodes) {
+            cpu.add(new XYChart.Data<>("Node " + node.getNode(), node.getCpuLoad()));
+            memory.add(new XYChart.Data<>("Node " + node.getNode(), node.getMemUsedPercent()));
+        }
+        nodeCpuSeries.getData().setAll(cpu);
+        nodeMemorySeries.getData().setAll(memory);
+    }
+
+    private void showInterrupts(InterruptSource.InterruptSnapshot snapshot) {
+        interruptHeatmap.setSnapshot(snapshot);
+        interruptCanvas.setHeight(Math.max(150, Math.min(500, snapshot.getRows() * 8)));
+        interruptCanvas.redraw();
+        topIrqData.setAll(snapshot.top);
+        interruptLabel.setText(String.format("%d sources x %d CPUs, layout parsed %d times; colour is log-scaled up to %.0f/s",
+                snapshot.getRows(), snapshot.getColumns(), snapshot.layoutChanges, snapshot.maxRate));
+    }
+
+    private VBox createInterruptPane() {
+        interruptLabel = new Label("Waiting for the first two samples of /proc/interrupts");
+        interruptCanvas = new HeatmapCanvas(760, 150);
+        interruptCanvas.setSource(interruptHeatmap);
+        Label detailLabel = new Label();
+        interruptCanvas.setOnMouseMoved(e -> {
+            int row = interruptCanvas.rowAt(e.getY());
+            int column = interruptCanvas.columnAt(e.getX());
+            detailLabel.setText(row >= 0 && column >= 0 ? interruptHeatmap.describe(row, column) : "");
         });
-        
-        new Thread(task).start();
+
+        TableView<InterruptSource.IrqInfo> topTable = new TableView<>(topIrqData);
+        topTable.setPlaceholder(new Label("No interrupt activity yet"));
+        TableColumn<InterruptSource.IrqInfo, String> nameCol = new TableColumn<>("Source");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setPrefWidth(140);
+        TableColumn<InterruptSource.IrqInfo, String> irqCol = new TableColumn<>("IRQ");
+        irqCol.setCellValueFactory(new PropertyValueFactory<>("irq"));
+        TableColumn<InterruptSource.IrqInfo, Double> rateCol = new TableColumn<>("Per Second");
+        rateCol.setCellValueFactory(new PropertyValueFactory<>("perSec"));
+        TableColumn<InterruptSource.IrqInfo, Integer> busiestCol = new TableColumn<>("Busiest CPU");
+        busiestCol.setCellValueFactory(new PropertyValueFactory<>("busiestCpu"));
+        TableColumn<InterruptSource.IrqInfo, Double> shareCol = new TableColumn<>("On Busiest (%)");
+        shareCol.setCellValueFactory(new PropertyValueFactory<>("busiestShare"));
+        shareCol.setPrefWidth(110);
+        for (TableColumn<InterruptSource.IrqInfo, Double> col : java.util.Arrays.asList(rateCol, shareCol)) {
+            col.setCellFactory(column -> new javafx.scene.control.TableCell<InterruptSource.IrqInfo, Double>() {
+                @Override
+                protected void updateItem(Double item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty || item == null ? null : String.format("%.1f", item));
+                }
+            });
+        }
+        TableColumn<InterruptSource.IrqInfo, Integer> activeCol = new TableColumn<>("Active CPUs");
+        activeCol.setCellValueFactory(new PropertyValueFactory<>("activeCpus"));
+        TableColumn<InterruptSource.IrqInfo, String> descriptionCol = new TableColumn<>("Description");
+        descriptionCol.setCellValueFactory(new PropertyValueFactory<>("description"));
+        descriptionCol.setPrefWidth(300);
+        topTable.getColumns().addAll(nameCol, irqCol, rateCol, busiestCol, shareCol, activeCol, descriptionCol);
+
+        VBox box = new VBox(5, interruptLabel, interruptCanvas, detailLabel, new Label("Top sources"), topTable);
+        box.setPadding(new Insets(10));
+        VBox.setVgrow(topTable, javafx.scene.layout.Priority.ALWAYS);
+        return box;
     }
-    
+
+    private void refreshLifecycleData() {
+        // Both views are computed from the ring log in memory, cheap enough for the FX thread
+        churnData.setAll(lifecycleTracker.getChurn(CHURN_WINDOW_SECONDS * 1000L));
+        lifecycleData.setAll(lifecycleTracker.getEvents(LIFECYCLE_EVENTS_SHOWN));
+        lifecycleLabel.setText(String.format("%d events recorded, source: %s", lifecycleTracker.getTotalEvents(),
+                lifecycleTracker.isUsingKernelEvents() ? "kernel proc connector + samples" : "samples only (proc connector needs CAP_NET_ADMIN)"));
+    }
+
+    private TableView<ProcessAnomalyTracker.AnomalyInfo> createSuspiciousTable() {
+        TableView<ProcessAnomalyTracker.AnomalyInfo> table = new TableView<>(suspiciousData);
+        table.setPlaceholder(new Label("No CPU spikes or memory growth detected"));
+
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, String> nameCol = new TableColumn<>("Name");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setPrefWidth(160);
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, String> pidCol = new TableColumn<>("PID");
+        pidCol.setCellValueFactory(new PropertyValueFactory<>("pid"));
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, String> reasonCol = new TableColumn<>("Reason");
+        reasonCol.setCellValueFactory(new PropertyValueFactory<>("reason"));
+        reasonCol.setPrefWidth(160);
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, Double> cpuCol = new TableColumn<>("CPU (%)");
+        cpuCol.setCellValueFactory(new PropertyValueFactory<>("cpu"));
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, Double> avgCol = new TableColumn<>("CPU EWMA (%)");
+        avgCol.setCellValueFactory(new PropertyValueFactory<>("cpuAverage"));
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, Double> p95Col = new TableColumn<>("CPU p95 (%)");
+        p95Col.setCellValueFactory(new PropertyValueFactory<>("cpuP95"));
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, Double> rssCol = new TableColumn<>("RSS (MB)");
+        rssCol.setCellValueFactory(new PropertyValueFactory<>("rss"));
+        TableColumn<ProcessAnomalyTracker.AnomalyInfo, Double> trendCol = new TableColumn<>("RSS Trend (MB/min)");
+        trendCol.setCellValueFactory(new PropertyValueFactory<>("rssTrend"));
+        trendCol.setPrefWidth(130);
+
+        for (TableColumn<ProcessAnomalyTracker.AnomalyInfo, Double> col : java.util.Arrays.asList(cpuCol, avgCol, p95Col, rssCol, trendCol)) {
+            col.setCellFactory(column -> new javafx.scene.control.TableCell<ProcessAnomalyTracker.AnomalyInfo, Double>() {
+                @Override
+                protected void updateItem(Double item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty || item == null ? null : String.format("%.2f", item));
+                }
+            });
+        }
+
+        table.getColumns().addAll(nameCol, pidCol, reasonCol, cpuCol, avgCol, p95Col, rssCol, trendCol);
+        return table;
+    }
+
+    private void showProcessDetails(ProcessDetailLoader.ProcessDetails details) {
+        if (details == null) {
+            detailSummaryLabel.setText("Select a process to see its details");
+            detailCommandLine.clear();
+            detailCgroup.clear();
+            detailEnvironment.clear();
+            detailOpenFiles.clear();
+            detailMemoryMaps.clear();
+            detailJvm.clear();
+            return;
+        }
+        java.text.SimpleDateFormat format = new java.text.SimpleDateFormat("HH:mm:ss");
+        detailSummaryLabel.setText(String.format("PID %d | Threads: %d | Open files: %d | Memory maps: %d | Updated %s",
+                details.getPid(), details.getThreadCount(), details.getOpenFileCount(),
+                details.getMemoryMaps().size(), format.format(new java.util.Date(details.getLoadedAt()))));
+        detailCommandLine.setText(details.getCommandLine());
+        detailCgroup.setText(details.getCgroup());
+        detailEnvironment.setAll(details.getEnvironment());
+        detailOpenFiles.setAll(details.getOpenFiles());
+        detailMemoryMaps.setAll(details.getMemoryMaps());
+    }
+
+    private void showJvmDetails(JvmPerfReader.JvmStats jvm) {
+        if (jvm == null) {
+            detailJvm.setText("Not a JVM, or its counters are not readable (-XX:-UsePerfData, or another user's hsperfdata file)");
+            return;
+        }
+        detailJvm.setText(String.format("%s%nMain: %s%n"
+                + "Heap: %.1f MB used, %.1f MB committed, %.1f MB max%n"
+                + "GC pauses: %d, %.0f ms total, %.1f%% of the last interval%n"
+                + "Threads: %d live, %d daemon, %d peak%n"
+                + "Safepoints: %d, %.0f ms total, %.0f ms reaching them%n"
+                + "Classes loaded: %d",
+                jvm.getVmName(), jvm.getCommand(),
+                jvm.getHeapUsedMb(), jvm.getHeapCapacityMb(), jvm.getHeapMaxMb(),
+                jvm.getGcCount(), jvm.getGcMillis(), jvm.getGcPercent(),
+                jvm.getThreads(), jvm.getDaemonThreads(), jvm.getPeakThreads(),
+                jvm.getSafepoints(), jvm.getSafepointMillis(), jvm.getSafepointSyncMillis(),
+                jvm.getLoadedClasses()));
+    }
+
+    private TitledPane createProcessDetailPane() {
+        detailSummaryLabel = new Label();
+        detailCommandLine = new TextArea();
+        detailCommandLine.setEditable(false);
+        detailCommandLine.setWrapText(true);
+        detailCommandLine.setPrefRowCount(2);
+        detailCgroup = new TextArea();
+        detailCgroup.setEditable(false);
+        detailCgroup.setPrefRowCount(2);
+        detailJvm = new TextArea();
+        detailJvm.setEditable(false);
+        detailJvm.setPrefRowCount(4);
+
+        TabPane detailTabs = new TabPane();
+        detailTabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        detailTabs.getTabs().addAll(
+            new Tab("Command Line", detailCommandLine),
+            new Tab("Threads", createThreadTable()),
+            new Tab("Environment", new ListView<>(detailEnvironment)),
+            new Tab("Open Files", new ListView<>(detailOpenFiles)),
+            new Tab("Memory Maps", new ListView<>(detailMemoryMaps)),
+            new Tab("Cgroup", detailCgroup),
+            new Tab("JVM", detailJvm)
+        );
+        detailTabs.setPrefHeight(180);
+
+        VBox content = new VBox(5, detailSummaryLabel, detailTabs);
+        showProcessDetails(null);
+
+        TitledPane pane = new TitledPane("Process Details", content);
+        pane.setExpanded(true);
+        return pane;
+    }
+
     private void updateHistoryCharts(ResourceSnapshot snapshot) {
         long now = System.currentTimeMillis();
         java.text.SimpleDateFormat format = new java.text.SimpleDateFormat("HH:mm:ss");
@@ -510,68 +836,158 @@ public class SystemInfoTable extends Application {
         netDownHistory.getData().add(new XYChart.Data<>(time, snapshot.netDown));
         if (netDownHistory.getData().size() > MAX_DATA_POINTS) netDownHistory.getData().remove(0);
 
-        // Update CPU core table
-        cpuCoreData.clear();
-        cpuCoreData.addAll(snapshot.cpuCores);
-    }
-    
-    private void refreshFileSystemData() {
-        Task<List<FileSystemInfo>> task = new Task<List<FileSystemInfo>>() {
-            @Override
-            protected List<FileSystemInfo> call() throws Exception {
-                return getFileSystemInfo();
+        for (Map.Entry<String, double[]> e : snapshot.interfaceRates.entrySet()) {
+            List<XYChart.Series<String, Number>> series = interfaceHistory.get(e.getKey());
+            if (series == null) {
+                XYChart.Series<String, Number> up = new XYChart.Series<>();
+                up.setName(e.getKey() + " up");
+                XYChart.Series<String, Number> down = new XYChart.Series<>();
+                down.setName(e.getKey() + " down");
+                series = java.util.Arrays.asList(up, down);
+                interfaceHistory.put(e.getKey(), series);
+                interfaceChart.getData().addAll(series);
             }
-        };
-        
-        task.setOnSucceeded(e -> {
-            List<FileSystemInfo> newData = task.getValue();
-            Platform.runLater(() -> {
-                fileSystemData.clear();
-                fileSystemData.addAll(newData);
-            });
-        });
-        
-        task.setOnFailed(e -> {
-            System.err.println("Failed to refresh file system data: " + task.getException().getMessage());
-        });
-        
-        new Thread(task).start();
-    }
-    
-    private void refreshStartupData() {
-        Task<List<StartupInfo>> task = new Task<List<StartupInfo>>() {
-            @Override
-            protected List<StartupInfo> call() {
-                return getStartupApplications();
+            for (int i = 0; i < 2; i++) {
+                XYChart.Series<String, Number> s = series.get(i);
+                s.getData().add(new XYChart.Data<>(time, e.getValue()[i]));
+                if (s.getData().size() > MAX_DATA_POINTS) s.getData().remove(0);
             }
-        };
+        }
 
-        task.setOnSucceeded(e -> {
-            List<StartupInfo> newData = task.getValue();
-            Platform.runLater(() -> {
-                startupData.clear();
-                startupData.addAll(newData);
-            });
-        });
+        // Saturation
+        SaturationCollector.SaturationSnapshot saturation = snapshot.saturation;
+        if (saturation.psiAvailable) {
+            cpuPressureHistory.getData().add(new XYChart.Data<>(time, saturation.cpuSome));
+            if (cpuPressureHistory.getData().size() > MAX_DATA_POINTS) cpuPressureHistory.getData().remove(0);
 
-        task.setOnFailed(e -> {
-            System.err.println("Failed to refresh startup data: " + e.getSource().getException());
-             if (e.getSource().getException() != null) {
-                e.getSource().getException().printStackTrace();
-            }
-        });
+            memPressureHistory.getData().add(new XYChart.Data<>(time, saturation.memorySome));
+            if (memPressureHistory.getData().size() > MAX_DATA_POINTS) memPressureHistory.getData().remove(0);
 
-        new Thread(task).start();
+            ioPressureHistory.getData().add(new XYChart.Data<>(time, saturation.ioSome));
+            if (ioPressureHistory.getData().size() > MAX_DATA_POINTS) ioPressureHistory.getData().remove(0);
+
+            memFullPressureHistory.getData().add(new XYChart.Data<>(time, saturation.memoryFull));
+            if (memFullPressureHistory.getData().size() > MAX_DATA_POINTS) memFullPressureHistory.getData().remove(0);
+
+            ioFullPressureHistory.getData().add(new XYChart.Data<>(time, saturation.ioFull));
+            if (ioFullPressureHistory.getData().size() > MAX_DATA_POINTS) ioFullPressureHistory.getData().remove(0);
+        } else {
+            pressureChart.setTitle("Pressure Stall (PSI not available on this host)");
+        }
+
+        loadHistory.getData().add(new XYChart.Data<>(time, saturation.load1));
+        if (loadHistory.getData().size() > MAX_DATA_POINTS) loadHistory.getData().remove(0);
+
+        runQueueHistory.getData().add(new XYChart.Data<>(time, saturation.procsRunning));
+        if (runQueueHistory.getData().size() > MAX_DATA_POINTS) runQueueHistory.getData().remove(0);
+
+        blockedHistory.getData().add(new XYChart.Data<>(time, saturation.procsBlocked));
+        if (blockedHistory.getData().size() > MAX_DATA_POINTS) blockedHistory.getData().remove(0);
+
+        contextSwitchHistory.getData().add(new XYChart.Data<>(time, saturation.contextSwitchesPerSec));
+        if (contextSwitchHistory.getData().size() > MAX_DATA_POINTS) contextSwitchHistory.getData().remove(0);
+
+        // Per-core heatmap reads straight from the ring buffers
+        coreHeatmapCanvas.redraw();
+
+        resourceData.setAll(snapshot.memoryBreakdown);
     }
     
     private void startAutoRefresh() {
-        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> { // Ensure this is 1 second
-            refreshProcessData();
-            refreshResourceData(); 
-            refreshFileSystemData();
+        // Collectors run on the scheduler thread under the CPU budget; only the UI update hops to FX
+        SystemInfo si = new SystemInfo();
+        scheduler.register(new ProcessSource(si, smapsSampler, anomalyTracker, socketIndex, lifecycleTracker), snapshot -> {
+            if (webBackend != null) webBackend.publishProcesses(snapshot.processes);
+            Platform.runLater(() -> showProcesses(snapshot));
+        });
+        scheduler.register(new ResourceSource(si, coreHistory), snapshot -> {
+            if (webBackend != null) webBackend.publishResources(snapshot, coreHistory);
+            Platform.runLater(() -> updateHistoryCharts(snapshot));
+        });
+        scheduler.register(new NumaSource(coreHistory, si.getHardware().getProcessor().getLogicalProcessors(), threadSampler),
+                snapshot -> Platform.runLater(() -> showNuma(snapshot)));
+        scheduler.register(new InterruptSource(), snapshot -> Platform.runLater(() -> showInterrupts(snapshot)));
+        scheduler.register(new FileSystemSource(si), fileSystems -> {
+            if (webBackend != null) webBackend.publishFileSystems(fileSystems);
+            Platform.runLater(() -> fileSystemData.setAll(fileSystems));
+        });
+        scheduler.register(new StartupSource(), startup -> {
+            if (webBackend != null) webBackend.publishStartup(startup);
+            Platform.runLater(() -> startupData.setAll(startup));
+        });
+        scheduler.start();
+
+        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
+            refreshThreadData();
+            refreshLifecycleData();
+            collectorStats.setAll(scheduler.getStats());
+            collectorPane.setText(String.format("Collectors (%.1f%% of a core, budget %.1f%%)",
+                    scheduler.getUsagePercent(), scheduler.getBudgetPercent()));
         }));
         refreshTimeline.setCycleCount(Timeline.INDEFINITE);
         refreshTimeline.play();
+
+        // The selected process is refreshed at its own, slower rate
+        detailRefreshTimeline = new Timeline(new KeyFrame(Duration.seconds(DETAIL_REFRESH_SECONDS), e -> refreshProcessDetails(true)));
+        detailRefreshTimeline.setCycleCount(Timeline.INDEFINITE);
+        detailRefreshTimeline.play();
+    }
+
+    private void showProcesses(ProcessSource.ProcessSnapshot snapshot) {
+        ProcessInfo selectedItem = processTable.getSelectionModel().getSelectedItem();
+        List<TableColumn<ProcessInfo, ?>> sortOrder = new ArrayList<>(processTable.getSortOrder());
+
+        processData.clear();
+        processData.addAll(snapshot.processes);
+        suspiciousData.setAll(snapshot.suspicious);
+        // Without root most sockets belong to other users, which would make the column look wrong
+        socketLabel.setText(snapshot.unattributedSockets > 0
+                ? snapshot.unattributedSockets + " sockets without a readable owner" : "");
+
+        if (!sortOrder.isEmpty()) {
+            processTable.getSortOrder().addAll(sortOrder);
+            processTable.sort();
+        }
+
+        if (selectedItem != null) {
+            processTable.getSelectionModel().select(selectedItem);
+            processTable.scrollTo(selectedItem);
+        }
+    }
+
+    private TitledPane createCollectorPane() {
+        TableView<MetricScheduler.SourceStats> table = new TableView<>(collectorStats);
+        TableColumn<MetricScheduler.SourceStats, String> nameCol = new TableColumn<>("Source");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setPrefWidth(140);
+        TableColumn<MetricScheduler.SourceStats, String> priorityCol = new TableColumn<>("Priority");
+        priorityCol.setCellValueFactory(new PropertyValueFactory<>("priority"));
+        TableColumn<MetricScheduler.SourceStats, Long> intervalCol = new TableColumn<>("Interval (ms)");
+        intervalCol.setCellValueFactory(new PropertyValueFactory<>("intervalMillis"));
+        TableColumn<MetricScheduler.SourceStats, Long> effectiveCol = new TableColumn<>("Effective (ms)");
+        effectiveCol.setCellValueFactory(new PropertyValueFactory<>("effectiveIntervalMillis"));
+        TableColumn<MetricScheduler.SourceStats, Double> costCol = new TableColumn<>("Cost (ms)");
+        costCol.setCellValueFactory(new PropertyValueFactory<>("averageCostMillis"));
+        costCol.setCellFactory(column -> new javafx.scene.control.TableCell<MetricScheduler.SourceStats, Double>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : String.format("%.2f", item));
+            }
+        });
+        TableColumn<MetricScheduler.SourceStats, Double> cpuCol = new TableColumn<>("CPU %");
+        cpuCol.setCellValueFactory(new PropertyValueFactory<>("cpuPercent"));
+        cpuCol.setCellFactory(costCol.getCellFactory());
+        TableColumn<MetricScheduler.SourceStats, Long> runsCol = new TableColumn<>("Runs");
+        runsCol.setCellValueFactory(new PropertyValueFactory<>("runs"));
+        TableColumn<MetricScheduler.SourceStats, Long> deferredCol = new TableColumn<>("Deferred");
+        deferredCol.setCellValueFactory(new PropertyValueFactory<>("deferrals"));
+        table.getColumns().addAll(nameCol, priorityCol, intervalCol, effectiveCol, costCol, cpuCol, runsCol, deferredCol);
+        table.setPrefHeight(160);
+
+        collectorPane = new TitledPane("Collectors", table);
+        collectorPane.setExpanded(false);
+        return collectorPane;
     }
 
     private LineChart<String, Number> createHistoryChart(String title, String yAxisLabel, XYChart.Series<String, Number>... series) {
@@ -592,7 +1008,7 @@ public class SystemInfoTable extends Application {
         return chart;
     }
 
-    private VBox createResourceCharts() {
+    private VBox createResourceCharts(CentralProcessor processor) {
         cpuHistory.setName("CPU");
         memHistory.setName("Memory");
         swapHistory.setName("Swap");
@@ -613,69 +1029,64 @@ public class SystemInfoTable extends Application {
         gridPane.add(swapChart, 0, 1);
         gridPane.add(netChart, 1, 1);
 
-        cpuTableView = new TableView<>();
-        cpuTableView.setItems(cpuCoreData);
-        cpuTableView.setPrefHeight(200);
-        cpuTableView.getStyleClass().add("cpu-core-table");
-
-        TableColumn<ResourceInfo, String> coreNameCol = new TableColumn<>("Core");
-        coreNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
-        coreNameCol.setPrefWidth(120);
+        // Saturation: how much work is waiting, not just how busy the box is
+        cpuPressureHistory.setName("CPU some");
+        memPressureHistory.setName("Memory some");
+        ioPressureHistory.setName("IO some");
+        // "full" is time when every runnable task was stalled at once: the box made no progress
+        memFullPressureHistory.setName("Memory full");
+        ioFullPressureHistory.setName("IO full");
+        pressureChart = createHistoryChart("Pressure Stall (% time, avg10)", "Stalled %", cpuPressureHistory,
+                memPressureHistory, ioPressureHistory, memFullPressureHistory, ioFullPressureHistory);
+
+        loadHistory.setName("Load (1m)");
+        runQueueHistory.setName("Running");
+        blockedHistory.setName("Blocked");
+        LineChart<String, Number> loadChart = createHistoryChart("Load & Run Queue", "Tasks", loadHistory, runQueueHistory, blockedHistory);
+
+        contextSwitchHistory.setName("Context switches");
+        LineChart<String, Number> contextSwitchChart = createHistoryChart("Context Switches (/s)", "Switches/s", contextSwitchHistory);
+
+        gridPane.add(pressureChart, 0, 2);
+        gridPane.add(loadChart, 1, 2);
+        gridPane.add(contextSwitchChart, 0, 3);
+
+        // Series are added as interfaces show up
+        interfaceChart = createHistoryChart("Network by Interface (KB/s)", "KB/s");
+        gridPane.add(interfaceChart, 1, 3);
+
+        coreHeatmap = new CpuCoreHeatmap(coreHistory, processor.getLogicalProcessors());
+        coreHeatmapCanvas = new HeatmapCanvas(760, Math.max(120, Math.min(400, coreHistory.getCoreCount() * 12)));
+        coreHeatmapCanvas.setSource(coreHeatmap);
+
+        ComboBox<CpuCoreHeatmap.Grouping> groupingBox = new ComboBox<>(
+                FXCollections.observableArrayList(CpuCoreHeatmap.Grouping.values()));
+        groupingBox.setValue(CpuCoreHeatmap.Grouping.NONE);
+        groupingBox.setOnAction(e -> {
+            coreHeatmap.setGrouping(groupingBox.getValue());
+            coreHeatmapCanvas.redraw();
+        });
 
-        TableColumn<ResourceInfo, Double> usageCol = new TableColumn<>("Usage (%)");
-        usageCol.setCellValueFactory(cellData -> new javafx.beans.property.SimpleDoubleProperty(cellData.getValue().getUsedPercent()).asObject());
-        usageCol.setPrefWidth(160);
-        usageCol.setCellFactory(col -> new javafx.scene.control.TableCell<ResourceInfo, Double>() {
-            private final javafx.scene.control.ProgressBar bar = new javafx.scene.control.ProgressBar();
-            @Override
-            protected void updateItem(Double value, boolean empty) {
-                super.updateItem(value, empty);
-                if (empty || value == null) {
-                    setGraphic(null);
-                    setText(null);
-                } else {
-                    double percent = value / 100.0;
-                    bar.setProgress(percent);
-                    bar.setPrefWidth(100);
-                    // Color code: green <40, yellow <70, orange <90, red >=90
-                    String color;
-                    if (value < 40) color = "#4caf50"; // green
-                    else if (value < 70) color = "#ffeb3b"; // yellow
-                    else if (value < 90) color = "#ff9800"; // orange
-                    else color = "#f44336"; // red
-                    bar.setStyle("-fx-accent: " + color + ";");
-                    setGraphic(bar);
-                    setText(String.format("%.2f%%", value));
-                }
-            }
+        ComboBox<String> metricBox = new ComboBox<>(FXCollections.observableArrayList(CpuCoreHistory.METRIC_NAMES));
+        metricBox.setValue(CpuCoreHistory.METRIC_NAMES[CpuCoreHistory.TOTAL]);
+        metricBox.setOnAction(e -> {
+            coreHeatmap.setMetric(metricBox.getSelectionModel().getSelectedIndex());
+            coreHeatmapCanvas.redraw();
         });
 
-        TableColumn<ResourceInfo, String> statusCol = new TableColumn<>("Status");
-        statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
-        statusCol.setPrefWidth(100);
-        statusCol.setCellFactory(col -> new javafx.scene.control.TableCell<ResourceInfo, String>() {
-            @Override
-            protected void updateItem(String status, boolean empty) {
-                super.updateItem(status, empty);
-                if (empty || status == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(status);
-                    String bg;
-                    switch (status) {
-                        case "Low": bg = "#4caf50"; break; // green
-                        case "Medium": bg = "#ffeb3b"; break; // yellow
-                        case "High": bg = "#f44336"; break; // red
-                        default: bg = "#ffffff"; break;
-                    }
-                    setStyle("-fx-background-color: " + bg + "; -fx-text-fill: black;");
-                }
+        Label coreDetailLabel = new Label("Hover over the heatmap for per-core details");
+        coreHeatmapCanvas.setOnMouseMoved(e -> {
+            int row = coreHeatmapCanvas.rowAt(e.getY());
+            int column = coreHeatmapCanvas.columnAt(e.getX());
+            if (row >= 0 && column >= 0) {
+                coreDetailLabel.setText(coreHeatmap.describe(row, column));
             }
         });
-        cpuTableView.getColumns().addAll(coreNameCol, usageCol, statusCol);
 
-        VBox container = new VBox(10, gridPane, cpuTableView);
+        HBox heatmapControls = new HBox(10, new Label("Group by:"), groupingBox, new Label("Show:"), metricBox);
+        heatmapControls.setAlignment(Pos.CENTER_LEFT);
+
+        VBox container = new VBox(10, gridPane, heatmapControls, coreHeatmapCanvas, coreDetailLabel);
         container.setPadding(new Insets(10));
         container.setAlignment(Pos.CENTER);
         return container;
@@ -714,9 +1125,31 @@ public class SystemInfoTable extends Application {
         vszCol.setCellValueFactory(new PropertyValueFactory<>("virtualMem"));
         TableColumn<ProcessInfo, String> diskReadCol = new TableColumn<>("Disk Read (MB)");
         diskReadCol.setCellValueFactory(new PropertyValueFactory<>("diskRead"));
+        // PSS/USS/Swap come from the background smaps_rollup sampler and lag behind RSS
+        TableColumn<ProcessInfo, String> pssCol = new TableColumn<>("PSS (MB)");
+        pssCol.setCellValueFactory(new PropertyValueFactory<>("pss"));
+        TableColumn<ProcessInfo, String> ussCol = new TableColumn<>("USS (MB)");
+        ussCol.setCellValueFactory(new PropertyValueFactory<>("uss"));
+        TableColumn<ProcessInfo, String> swapCol = new TableColumn<>("Swap (MB)");
+        swapCol.setCellValueFactory(new PropertyValueFactory<>("swap"));
+        TableColumn<ProcessInfo, String> memAgeCol = new TableColumn<>("Mem Age (s)");
+        memAgeCol.setCellValueFactory(new PropertyValueFactory<>("memAge"));
+        TableColumn<ProcessInfo, Integer> connCol = new TableColumn<>("Sockets");
+        connCol.setCellValueFactory(new PropertyValueFactory<>("connections"));
+        // JVM columns are read from the hsperfdata counters and stay empty for other processes
+        TableColumn<ProcessInfo, String> heapCol = new TableColumn<>("Heap (MB)");
+        heapCol.setCellValueFactory(new PropertyValueFactory<>("heap"));
+        TableColumn<ProcessInfo, String> gcPercentCol = new TableColumn<>("GC (%)");
+        gcPercentCol.setCellValueFactory(new PropertyValueFactory<>("gcPercent"));
+        TableColumn<ProcessInfo, String> gcCountCol = new TableColumn<>("GCs");
+        gcCountCol.setCellValueFactory(new PropertyValueFactory<>("gcCount"));
+        TableColumn<ProcessInfo, String> jvmThreadsCol = new TableColumn<>("Java Threads");
+        jvmThreadsCol.setCellValueFactory(new PropertyValueFactory<>("jvmThreads"));
+        TableColumn<ProcessInfo, String> safepointCol = new TableColumn<>("Safepoint (ms)");
+        safepointCol.setCellValueFactory(new PropertyValueFactory<>("safepointTime"));
         
         // Thiết lập sắp xếp mặc định theo CPU giảm dần
-        processTable.getColumns().addAll(nameCol, userCol, pidCol, cpuCol, rssCol, vszCol, diskReadCol);
+        processTable.getColumns().addAll(nameCol, userCol, pidCol, cpuCol, rssCol, pssCol, ussCol, swapCol, memAgeCol, connCol, heapCol, gcPercentCol, gcCountCol, jvmThreadsCol, safepointCol, vszCol, diskReadCol);
         processTable.getSortOrder().add(cpuCol);
         cpuCol.setSortType(TableColumn.SortType.DESCENDING);
         processTable.sort();
@@ -737,7 +1170,38 @@ public class SystemInfoTable extends Application {
             }
         });
 
-        VBox processLayout = new VBox(10, processTable, endProcessButton);
+        // Pinned processes keep their per-thread sampling even when not selected
+        ToggleButton pinButton = new ToggleButton("Pin Threads");
+        pinButton.disableProperty().bind(processTable.getSelectionModel().selectedItemProperty().isNull());
+        pinButton.setOnAction(event -> {
+            ProcessInfo selectedProcess = processTable.getSelectionModel().getSelectedItem();
+            if (selectedProcess == null) return;
+            int pid = Integer.parseInt(selectedProcess.getPid());
+            if (pinButton.isSelected()) {
+                threadSampler.pin(pid, selectedProcess.getStartTime());
+            } else {
+                threadSampler.unpin(pid);
+            }
+        });
+
+        processTable.getSelectionModel().selectedItemProperty().addListener((obs, oldItem, newItem) -> {
+            if (newItem == null) return;
+            // Each process refresh reselects a new row object, which keeps this tab current
+            showJvmDetails(newItem.getJvm());
+            if (oldItem == null || !oldItem.getPid().equals(newItem.getPid())) {
+                int pid = Integer.parseInt(newItem.getPid());
+                threadSampler.setSelected(pid);
+                pinButton.setSelected(threadSampler.isPinned(pid, newItem.getStartTime()));
+                threadData.clear();
+                refreshProcessDetails(false);
+            }
+        });
+
+        socketLabel = new Label();
+        HBox processButtons = new HBox(10, endProcessButton, pinButton, socketLabel);
+        processButtons.setAlignment(Pos.CENTER);
+
+        VBox processLayout = new VBox(10, processTable, processButtons, createProcessDetailPane());
         processLayout.setPadding(new Insets(10));
         processLayout.setAlignment(Pos.CENTER);
         processTab.setContent(processLayout);
@@ -748,16 +1212,45 @@ public class SystemInfoTable extends Application {
         resourceLayout.setAlignment(Pos.TOP_CENTER); // Align content to top center
 
         // Create and add charts
-        VBox resourceChartsContainer = createResourceCharts();
+        CentralProcessor processor = new SystemInfo().getHardware().getProcessor();
+        coreHistory = new CpuCoreHistory(processor.getLogicalProcessorCount(), MAX_DATA_POINTS);
+        VBox resourceChartsContainer = createResourceCharts(processor);
         
-        // Placeholder for the old TableView<ResourceInfo> if needed, or remove if charts replace it entirely
-        // TableView<ResourceInfo> resourcesTable = new TableView<>(resourceData); 
-        // ... (setup columns for resourcesTable if you keep it)
-        // resourceLayout.getChildren().addAll(resourceChartsContainer, resourcesTable); // If keeping table
-        resourceLayout.getChildren().add(resourceChartsContainer); // If only charts
-
-        resourceTab.setContent(resourceLayout);
+        // Memory breakdown from /proc/meminfo
+        TableView<ResourceInfo> memoryTable = new TableView<>(resourceData);
+        TableColumn<ResourceInfo, String> memNameCol = new TableColumn<>("Memory");
+        memNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        memNameCol.setPrefWidth(200);
+        TableColumn<ResourceInfo, String> memUsedCol = new TableColumn<>("Size");
+        memUsedCol.setCellValueFactory(new PropertyValueFactory<>("used"));
+        memUsedCol.setPrefWidth(120);
+        TableColumn<ResourceInfo, String> memTotalCol = new TableColumn<>("Of Total");
+        memTotalCol.setCellValueFactory(new PropertyValueFactory<>("total"));
+        memTotalCol.setPrefWidth(120);
+        TableColumn<ResourceInfo, String> memPercentCol = new TableColumn<>("%");
+        memPercentCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        memoryTable.getColumns().addAll(memNameCol, memUsedCol, memTotalCol, memPercentCol);
+        memoryTable.setPrefHeight(250);
+
+        resourceLayout.getChildren().addAll(resourceChartsContainer, memoryTable, createCollectorPane());
+
+        // Heatmap height grows with the core count, so let the tab scroll
+        ScrollPane resourceScroll = new ScrollPane(resourceLayout);
+        resourceScroll.setFitToWidth(true);
+        resourceTab.setContent(resourceScroll);
         
+        Tab suspiciousTab = new Tab("Suspicious");
+        suspiciousTab.setContent(createSuspiciousTable());
+
+        Tab topologyTab = new Tab("Topology");
+        topologyTab.setContent(createTopologyPane());
+
+        Tab interruptTab = new Tab("Interrupts");
+        interruptTab.setContent(createInterruptPane());
+
+        Tab lifecycleTab = new Tab("Lifecycle");
+        lifecycleTab.setContent(createLifecyclePane());
+
         Tab fileSystemTab = new Tab("File System");
         TableView<FileSystemInfo> fileSystemTable = new TableView<>(fileSystemData);
         TableColumn<FileSystemInfo, String> mountCol = new TableColumn<>("Mount Point");
@@ -789,16 +1282,29 @@ public class SystemInfoTable extends Application {
         startupTable.getColumns().addAll(startupNameCol, startupPathCol);
         startupTab.setContent(startupTable);
         
-        tabPane.getTabs().addAll(processTab, resourceTab, fileSystemTab, startupTab);
+        tabPane.getTabs().addAll(processTab, resourceTab, topologyTab, interruptTab, suspiciousTab, lifecycleTab, fileSystemTab, startupTab);
 
         Scene scene = new Scene(tabPane, 800, 700); // Increased height for charts
         primaryStage.setScene(scene);
         primaryStage.show();
         
-        refreshStartupData();
+        // Optional web backend for the React client: --web-port=N or -Dmonitor.web.port=N
+        webBackend = WebBackend.fromArguments(getParameters().getRaw());
+
+        smapsSampler.start();
+        lifecycleTracker.start();
         startAutoRefresh();
     }
 
+    @Override
+    public void stop() {
+        // The HTTP server's dispatcher is not a daemon thread and would keep the JVM alive
+        if (webBackend != null) webBackend.stop();
+        scheduler.stop();
+        smapsSampler.stop();
+        lifecycleTracker.stop();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
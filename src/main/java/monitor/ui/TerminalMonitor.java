@@ -0,0 +1,392 @@
+package monitor.ui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import oshi.SystemInfo;
+
+/**
+ * Text-mode front end for servers without a display. It runs the same {@link MetricSource}s as
+ * the JavaFX window under a {@link MetricScheduler}, and draws the process table, CPU, memory and
+ * network sparklines and the startup entries into a {@link TerminalScreen}.
+ *
+ * <p>Run this class directly, e.g. {@code java -cp <classpath> monitor.ui.TerminalMonitor};
+ * it does not touch JavaFX, so no display or JavaFX runtime is needed.
+ * Keys: {@code c m p n} sort by CPU, memory, PID or name (again to reverse), {@code /} filter,
+ * {@code f} toggles 10 Hz mode, {@code s} switches to startup entries, arrows or {@code j k}
+ * scroll, {@code q} quits.
+ */
+public class TerminalMonitor {
+    private static final int HISTORY = 240;
+    private static final long POLL_MILLIS = 25;
+    private static final long NORMAL_INTERVAL = 1000;
+    private static final long FAST_INTERVAL = 100;
+    // Full process scans cost tens of milliseconds, so 10 Hz mode leaves them to the budget
+    private static final long FAST_PROCESS_INTERVAL = 250;
+
+    private enum SortKey { CPU, MEMORY, PID, NAME }
+
+    private final TerminalScreen screen = new TerminalScreen();
+    private final MetricScheduler scheduler = new MetricScheduler();
+    private final boolean unicode;
+    private final char[] sparkChars;
+
+    private volatile ProcessSource.ProcessSnapshot processes;
+    private volatile List<SystemInfoTable.StartupInfo> startup = Collections.emptyList();
+    private volatile SystemInfoTable.ResourceSnapshot resources;
+    private volatile boolean dataChanged = true;
+    private volatile boolean running = true;
+
+    // Sparkline history, written by the scheduler thread and read while drawing
+    private final float[] cpuHistory = new float[HISTORY];
+    private final float[] memHistory = new float[HISTORY];
+    private final float[] netUpHistory = new float[HISTORY];
+    private final float[] netDownHistory = new float[HISTORY];
+    private int historyHead;
+    private int historyCount;
+
+    private final List<SystemInfoTable.ProcessInfo> view = new ArrayList<>();
+    private ProcessSource.ProcessSnapshot viewSource;
+    private boolean viewDirty = true;
+    private SortKey sortKey = SortKey.CPU;
+    private boolean descending = true;
+    private final StringBuilder filter = new StringBuilder();
+    private boolean editingFilter;
+    private boolean fastMode;
+    private boolean showStartup;
+    private int scroll;
+    private int escapeState;
+
+    private ProcessSource processSource;
+    private ResourceSource resourceSource;
+
+    public TerminalMonitor() {
+        String locale = (System.getenv("LC_ALL") + System.getenv("LC_CTYPE") + System.getenv("LANG")).toUpperCase();
+        unicode = locale.contains("UTF-8") || locale.contains("UTF8");
+        sparkChars = unicode ? " ▁▂▃▄▅▆▇█".toCharArray() : " .:-=+*#%@".toCharArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        ProcPaths.configure();
+        if (System.console() == null) {
+            System.err.println("The terminal UI needs an interactive terminal");
+            System.exit(1);
+        }
+        new TerminalMonitor().run();
+    }
+
+    public void run() throws IOException, InterruptedException {
+        SystemInfo si = new SystemInfo();
+        CpuCoreHistory coreHistory = new CpuCoreHistory(si.getHardware().getProcessor().getLogicalProcessorCount(), HISTORY);
+        processSource = new ProcessSource(si, new SmapsSampler(), new ProcessAnomalyTracker(), new SocketInodeIndex(), new ProcessLifecycleTracker());
+        resourceSource = new ResourceSource(si, coreHistory);
+        scheduler.register(processSource, snapshot -> {
+            processes = snapshot;
+            dataChanged = true;
+        });
+        scheduler.register(resourceSource, this::recordResources);
+        scheduler.register(new StartupSource(), entries -> {
+            startup = entries;
+            dataChanged = true;
+        });
+
+        screen.open();
+        Thread restore = new Thread(() -> {
+            running = false;
+            screen.close();
+        });
+        Runtime.getRuntime().addShutdownHook(restore);
+        scheduler.start();
+        try {
+            loop();
+        } finally {
+            scheduler.stop();
+            screen.close();
+            Runtime.getRuntime().removeShutdownHook(restore);
+        }
+    }
+
+    private void loop() throws IOException, InterruptedException {
+        long nextSizeCheck = 0;
+        while (running) {
+            boolean dirty = dataChanged;
+            int key;
+            while ((key = screen.readKey()) >= 0) {
+                if (!handleKey(key)) return;
+                dirty = true;
+            }
+            if (escapeState == 1) {
+                // Escape sequences arrive in one burst, so a lone ESC is the Esc key itself
+                escapeState = 0;
+                cancelFilter();
+            }
+
+            long now = System.currentTimeMillis();
+            if (now >= nextSizeCheck) {
+                if (screen.updateSize()) dirty = true;
+                nextSizeCheck = now + 250;
+            }
+
+            if (dirty) {
+                dataChanged = false;
+                draw();
+                screen.flush();
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    private boolean handleKey(int key) {
+        // Arrow keys arrive as ESC [ A / ESC [ B
+        if (escapeState == 1) {
+            escapeState = key == '[' ? 2 : 0;
+            if (escapeState == 2) return true;
+            cancelFilter();
+        } else if (escapeState == 2) {
+            escapeState = 0;
+            if (key == 'A') scroll = Math.max(0, scroll - 1);
+            if (key == 'B') scroll++;
+            if (key == '5') scroll = Math.max(0, scroll - pageSize());
+            if (key == '6') scroll += pageSize();
+            return true;
+        }
+        if (key == 27) {
+            escapeState = 1;
+            return true;
+        }
+
+        if (editingFilter) {
+            if (key == '\n' || key == '\r') {
+                editingFilter = false;
+            } else if (key == 127 || key == 8) {
+                if (filter.length() > 0) filter.setLength(filter.length() - 1);
+            } else if (key >= 32 && key < 127) {
+                filter.append((char) key);
+            }
+            scroll = 0;
+            viewDirty = true;
+            return true;
+        }
+
+        switch (key) {
+            case 'q':
+            case 'Q':
+                return false;
+            case 'c': sortBy(SortKey.CPU); break;
+            case 'm': sortBy(SortKey.MEMORY); break;
+            case 'p': sortBy(SortKey.PID); break;
+            case 'n': sortBy(SortKey.NAME); break;
+            case '/':
+                editingFilter = true;
+                filter.setLength(0);
+                viewDirty = true;
+                break;
+            case 'f':
+                fastMode = !fastMode;
+                resourceSource.setIntervalMillis(fastMode ? FAST_INTERVAL : NORMAL_INTERVAL);
+                processSource.setIntervalMillis(fastMode ? FAST_PROCESS_INTERVAL : NORMAL_INTERVAL);
+                scheduler.requestNow(ResourceSource.NAME);
+                break;
+            case 's':
+                showStartup = !showStartup;
+                scroll = 0;
+                break;
+            case 'k': scroll = Math.max(0, scroll - 1); break;
+            case 'j': scroll++; break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    private void cancelFilter() {
+        if (editingFilter) {
+            editingFilter = false;
+            filter.setLength(0);
+            viewDirty = true;
+        }
+    }
+
+    private void sortBy(SortKey key) {
+        descending = sortKey == key ? !descending : key != SortKey.NAME && key != SortKey.PID;
+        sortKey = key;
+        viewDirty = true;
+    }
+
+    private int pageSize() {
+        return Math.max(1, screen.getRows() - 8);
+    }
+
+    private synchronized void recordResources(SystemInfoTable.ResourceSnapshot snapshot) {
+        resources = snapshot;
+        cpuHistory[historyHead] = (float) snapshot.cpuLoad;
+        memHistory[historyHead] = (float) snapshot.memLoad;
+        netUpHistory[historyHead] = (float) snapshot.netUp;
+        netDownHistory[historyHead] = (float) snapshot.netDown;
+        historyHead = (historyHead + 1) % HISTORY;
+        if (historyCount < HISTORY) historyCount++;
+        dataChanged = true;
+    }
+
+    private void draw() {
+        int rows = screen.getRows();
+        int cols = screen.getCols();
+        screen.clear();
+
+        drawHeader(cols);
+        SystemInfoTable.ResourceSnapshot r = resources;
+        synchronized (this) {
+            drawSparkline(1, "CPU", r == null ? 0 : r.cpuLoad, "%", cpuHistory, 100, cols, TerminalScreen.GREEN);
+            drawSparkline(2, "MEM", r == null ? 0 : r.memLoad, "%", memHistory, 100, cols, TerminalScreen.YELLOW);
+            drawSparkline(3, unicode ? "NET↑" : "NET^", r == null ? 0 : r.netUp, "K", netUpHistory, 0, cols, TerminalScreen.CYAN);
+            drawSparkline(4, unicode ? "NET↓" : "NETv", r == null ? 0 : r.netDown, "K", netDownHistory, 0, cols, TerminalScreen.CYAN);
+        }
+
+        int top = 6;
+        int bottom = rows - 1;
+        if (showStartup) {
+            drawStartup(top, bottom, cols);
+        } else {
+            drawProcesses(top, bottom, cols);
+        }
+        drawFooter(rows - 1, cols);
+    }
+
+    private void drawHeader(int cols) {
+        screen.fill(0, 0, cols, ' ', TerminalScreen.REVERSE);
+        int col = screen.put(0, 1, "system-monitor", TerminalScreen.REVERSE);
+        col = screen.put(0, col, fastMode ? "  10 Hz" : "  1 Hz", TerminalScreen.REVERSE);
+        col = screen.put(0, col, "  sort ", TerminalScreen.REVERSE);
+        col = screen.put(0, col, sortKey.name().toLowerCase(), TerminalScreen.REVERSE);
+        col = screen.put(0, col, descending ? (unicode ? " ↓" : " v") : (unicode ? " ↑" : " ^"), TerminalScreen.REVERSE);
+        if (filter.length() > 0) {
+            col = screen.put(0, col, "  filter ", TerminalScreen.REVERSE);
+            col = screen.put(0, col, filter, TerminalScreen.REVERSE);
+        }
+        ProcessSource.ProcessSnapshot p = processes;
+        if (p != null) {
+            col = screen.put(0, col, "  procs ", TerminalScreen.REVERSE);
+            screen.putNumber(0, col, 5, p.processes.size(), 0, TerminalScreen.REVERSE);
+            col += 5;
+        }
+        col = screen.put(0, col, "  monitor cpu ", TerminalScreen.REVERSE);
+        screen.putNumber(0, col, 5, scheduler.getUsagePercent(), 1, TerminalScreen.REVERSE);
+        screen.put(0, col + 5, '%', TerminalScreen.REVERSE);
+    }
+
+    /**
+     * One labelled sparkline row, newest sample on the right. A {@code scale} of 0 scales to
+     * the largest value in view, for unbounded rates like network traffic.
+     */
+    private void drawSparkline(int row, String label, double current, String unit, float[] history, double scale, int cols, byte attr) {
+        screen.put(row, 1, label, TerminalScreen.BOLD);
+        screen.putNumber(row, 6, 8, current, 1, TerminalScreen.NORMAL);
+        screen.put(row, 14, unit, TerminalScreen.DIM);
+        int start = 17;
+        int width = Math.min(cols - start - 1, historyCount);
+        if (width <= 0) return;
+
+        double max = scale;
+        if (max <= 0) {
+            for (int i = 0; i < width; i++) max = Math.max(max, history[(historyHead - 1 - i + HISTORY) % HISTORY]);
+            if (max <= 0) max = 1;
+        }
+        int levels = sparkChars.length - 1;
+        int right = start + Math.min(cols - start - 1, HISTORY) - 1;
+        for (int i = 0; i < width; i++) {
+            float value = history[(historyHead - 1 - i + HISTORY) % HISTORY];
+            int level = (int) Math.round(Math.min(1.0, value / max) * levels);
+            if (value > 0 && level == 0) level = 1;
+            screen.put(row, right - i, sparkChars[level], attr);
+        }
+    }
+
+    private void drawProcesses(int top, int bottom, int cols) {
+        int nameWidth = Math.max(10, cols - 47);
+        screen.fill(top, 0, cols, ' ', TerminalScreen.REVERSE);
+        screen.put(top, 0, "    PID USER          CPU%    RSS MB    VSZ MB  NAME", TerminalScreen.REVERSE);
+
+        rebuildView();
+        int visible = bottom - top - 1;
+        scroll = Math.max(0, Math.min(scroll, view.size() - visible));
+        for (int i = 0; i < visible && scroll + i < view.size(); i++) {
+            SystemInfoTable.ProcessInfo p = view.get(scroll + i);
+            int row = top + 1 + i;
+            double cpu = p.getCpuValue();
+            byte attr = cpu >= 50 ? TerminalScreen.RED : cpu >= 10 ? TerminalScreen.YELLOW : TerminalScreen.NORMAL;
+            screen.put(row, 7 - p.getPid().length(), p.getPid(), TerminalScreen.NORMAL);
+            screen.putField(row, 8, 10, p.getUser() == null ? "" : p.getUser(), TerminalScreen.DIM);
+            screen.putNumber(row, 18, 10, cpu, 1, attr);
+            screen.putNumber(row, 28, 10, p.getRssValue(), 1, TerminalScreen.NORMAL);
+            screen.putNumber(row, 38, 10, p.getVirtualMemValue(), 0, TerminalScreen.DIM);
+            screen.putField(row, 50, nameWidth, p.getName(), TerminalScreen.NORMAL);
+        }
+    }
+
+    private void drawStartup(int top, int bottom, int cols) {
+        screen.fill(top, 0, cols, ' ', TerminalScreen.REVERSE);
+        screen.put(top, 0, " NAME                           PATH/COMMAND", TerminalScreen.REVERSE);
+        List<SystemInfoTable.StartupInfo> entries = startup;
+        int visible = bottom - top - 1;
+        scroll = Math.max(0, Math.min(scroll, entries.size() - visible));
+        for (int i = 0; i < visible && scroll + i < entries.size(); i++) {
+            SystemInfoTable.StartupInfo entry = entries.get(scroll + i);
+            screen.putField(top + 1 + i, 1, 30, entry.getName(), TerminalScreen.BOLD);
+            screen.putField(top + 1 + i, 32, Math.max(0, cols - 32), entry.getPath(), TerminalScreen.NORMAL);
+        }
+    }
+
+    private void drawFooter(int row, int cols) {
+        if (editingFilter) {
+            int col = screen.put(row, 0, "Filter: ", TerminalScreen.BOLD);
+            col = screen.put(row, col, filter, TerminalScreen.NORMAL);
+            screen.put(row, col, '_', TerminalScreen.BOLD);
+            screen.put(row, col + 2, "(Enter keep, Esc clear)", TerminalScreen.DIM);
+            return;
+        }
+        int col = screen.put(row, 0, "q quit  c/m/p/n sort  / filter  f 10Hz  s " + (showStartup ? "processes" : "startup") + "  j/k scroll",
+                TerminalScreen.DIM);
+        if (cols - col >= 17) {
+            screen.putNumber(row, cols - 15, 7, screen.getLastFrameBytes(), 0, TerminalScreen.DIM);
+            screen.put(row, cols - 8, " B/frame", TerminalScreen.DIM);
+        }
+    }
+
+    /**
+     * Re-sorts and re-filters only when the data, the sort key or the filter changed.
+     */
+    private void rebuildView() {
+        ProcessSource.ProcessSnapshot snapshot = processes;
+        if (snapshot == null || (!viewDirty && snapshot == viewSource)) return;
+        viewSource = snapshot;
+        viewDirty = false;
+
+        view.clear();
+        for (SystemInfoTable.ProcessInfo p : snapshot.processes) {
+            if (filter.length() == 0 || containsIgnoreCase(p.getName(), filter) || containsIgnoreCase(p.getUser(), filter)
+                    || p.getPid().contentEquals(filter)) {
+                view.add(p);
+            }
+        }
+        Comparator<SystemInfoTable.ProcessInfo> comparator;
+        switch (sortKey) {
+            case MEMORY: comparator = Comparator.comparingDouble(SystemInfoTable.ProcessInfo::getRssValue); break;
+            case PID: comparator = Comparator.comparingInt(p -> Integer.parseInt(p.getPid())); break;
+            case NAME: comparator = Comparator.comparing(SystemInfoTable.ProcessInfo::getName, String.CASE_INSENSITIVE_ORDER); break;
+            default: comparator = Comparator.comparingDouble(SystemInfoTable.ProcessInfo::getCpuValue); break;
+        }
+        view.sort(descending ? comparator.reversed() : comparator);
+    }
+
+    private static boolean containsIgnoreCase(String text, CharSequence part) {
+        if (text == null) return false;
+        String needle = part.toString();
+        for (int i = 0; i + needle.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,315 @@
+package monitor.ui;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+
+/**
+ * Character-cell screen for the terminal front end. Callers draw a whole frame into a back
+ * buffer, and {@link #flush()} writes only the cells that differ from what is on the terminal,
+ * as cursor moves, SGR attribute changes and UTF-8 text, from a preallocated output buffer.
+ * An unchanged frame writes nothing at all.
+ *
+ * <p>Buffers are only reallocated when the terminal is resized. The terminal is switched to
+ * non-canonical, no-echo mode with {@code stty} and restored by {@link #close()}.
+ */
+public class TerminalScreen implements AutoCloseable {
+    public static final byte NORMAL = 0;
+    public static final byte BOLD = 1;
+    public static final byte REVERSE = 2;
+    public static final byte DIM = 3;
+    public static final byte GREEN = 4;
+    public static final byte YELLOW = 5;
+    public static final byte RED = 6;
+    public static final byte CYAN = 7;
+
+    private static final byte[][] SGR = {
+        ascii("\033[0m"), ascii("\033[0;1m"), ascii("\033[0;7m"), ascii("\033[0;2m"),
+        ascii("\033[0;32m"), ascii("\033[0;33m"), ascii("\033[0;31m"), ascii("\033[0;36m")
+    };
+
+    interface CLib extends Library {
+        int ioctl(int fd, NativeLong request, byte[] argument);
+    }
+
+    // Gaps up to this many unchanged cells are rewritten rather than skipped with a cursor move
+    private static final int MAX_BRIDGE = 4;
+
+    private static final NativeLong TIOCGWINSZ = new NativeLong(0x5413);
+
+    private final OutputStream output = new FileOutputStream(FileDescriptor.out);
+    private final InputStream input = System.in;
+    private final CLib libc = loadLibc();
+    private final byte[] winsize = new byte[8];
+    private String savedTerminalState;
+
+    private int rows;
+    private int cols;
+    private char[] chars = new char[0];
+    private byte[] attrs = new byte[0];
+    private char[] shownChars = new char[0];
+    private byte[] shownAttrs = new byte[0];
+    private boolean fullRedraw = true;
+
+    private byte[] out = new byte[64 * 1024];
+    private int outLength;
+    private final char[] digits = new char[32];
+
+    /**
+     * Switches the terminal to raw input on the alternate screen with the cursor hidden.
+     */
+    public void open() throws IOException {
+        savedTerminalState = stty("-g").trim();
+        stty("-icanon -echo min 0 time 0");
+        output.write(ascii("\033[?1049h\033[?25l"));
+        output.flush();
+        updateSize();
+    }
+
+    @Override
+    public void close() {
+        try {
+            output.write(ascii("\033[0m\033[?25h\033[?1049l"));
+            output.flush();
+            if (savedTerminalState != null) stty(savedTerminalState);
+        } catch (IOException e) {
+            // The terminal is going away; nothing left to restore
+        }
+    }
+
+    /**
+     * Re-reads the terminal size and reallocates the buffers if it changed. Returns true when
+     * the next frame has to be drawn from scratch.
+     */
+    public boolean updateSize() {
+        int newRows = 24;
+        int newCols = 80;
+        if (libc != null && libc.ioctl(1, TIOCGWINSZ, winsize) == 0) {
+            newRows = (winsize[0] & 0xff) | (winsize[1] & 0xff) << 8;
+            newCols = (winsize[2] & 0xff) | (winsize[3] & 0xff) << 8;
+        } else if (rows == 0) {
+            // No ioctl through JNA; ask stty once and keep that size
+            try {
+                String[] size = stty("size").trim().split("\\s+");
+                newRows = Integer.parseInt(size[0]);
+                newCols = Integer.parseInt(size[1]);
+            } catch (IOException | RuntimeException e) {
+                // Keep the 80x24 default
+            }
+        }
+        if (newRows <= 0 || newCols <= 0 || (newRows == rows && newCols == cols)) return fullRedraw;
+
+        rows = newRows;
+        cols = newCols;
+        chars = new char[rows * cols];
+        attrs = new byte[rows * cols];
+        shownChars = new char[rows * cols];
+        shownAttrs = new byte[rows * cols];
+        fullRedraw = true;
+        return true;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public void clear() {
+        Arrays.fill(chars, ' ');
+        Arrays.fill(attrs, NORMAL);
+    }
+
+    /**
+     * Draws text clipped to the screen and returns the column after it. A cell holds one BMP
+     * char, so characters outside the BMP (emoji in process names) are drawn as {@code ?}.
+     */
+    public int put(int row, int col, CharSequence text, byte attr) {
+        if (row < 0 || row >= rows) return col;
+        int base = row * cols;
+        for (int i = 0; i < text.length() && col < cols; i++, col++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) i++;
+            if (col >= 0) {
+                chars[base + col] = Character.isSurrogate(c) ? '?' : c;
+                attrs[base + col] = attr;
+            }
+        }
+        return col;
+    }
+
+    public int put(int row, int col, char c, byte attr) {
+        if (row >= 0 && row < rows && col >= 0 && col < cols) {
+            chars[row * cols + col] = Character.isSurrogate(c) ? '?' : c;
+            attrs[row * cols + col] = attr;
+        }
+        return col + 1;
+    }
+
+    /**
+     * Draws text left-aligned in a field of {@code width} cells, truncating it to fit.
+     */
+    public void putField(int row, int col, int width, CharSequence text, byte attr) {
+        int end = Math.min(col + width, cols);
+        int next = put(row, col, text.length() > width ? text.subSequence(0, width) : text, attr);
+        for (int c = next; c < end; c++) put(row, c, ' ', attr);
+    }
+
+    /**
+     * Draws a number right-aligned in a field of {@code width} cells without creating strings.
+     */
+    public void putNumber(int row, int col, int width, double value, int decimals, byte attr) {
+        int n = 0;
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) scale *= 10;
+        long fixed = Math.round(Math.abs(value) * scale);
+        for (int i = 0; i < decimals; i++) {
+            digits[n++] = (char) ('0' + fixed % 10);
+            fixed /= 10;
+        }
+        if (decimals > 0) digits[n++] = '.';
+        do {
+            digits[n++] = (char) ('0' + fixed % 10);
+            fixed /= 10;
+        } while (fixed > 0 && n < digits.length - 1);
+        if (value < 0 && Math.round(Math.abs(value) * scale) != 0) digits[n++] = '-';
+
+        int start = col + width - n;
+        for (int c = col; c < start; c++) put(row, c, ' ', attr);
+        for (int i = 0; i < n; i++) put(row, start + i, digits[n - 1 - i], attr);
+    }
+
+    public void fill(int row, int col, int width, char c, byte attr) {
+        for (int i = 0; i < width; i++) put(row, col + i, c, attr);
+    }
+
+    /**
+     * Writes the cells that changed since the last flush.
+     */
+    public void flush() throws IOException {
+        outLength = 0;
+        if (fullRedraw) append(ascii("\033[0m\033[2J"));
+        int currentAttr = -1;
+        int cursorRow = -1;
+        int cursorCol = -1;
+        for (int r = 0; r < rows; r++) {
+            int base = r * cols;
+            for (int c = 0; c < cols; c++) {
+                int i = base + c;
+                if (!fullRedraw && chars[i] == shownChars[i] && attrs[i] == shownAttrs[i]) continue;
+                if (r == cursorRow && c > cursorCol && c - cursorCol <= MAX_BRIDGE && sameAttr(base + cursorCol, i, currentAttr)) {
+                    // Rewriting a few unchanged cells is shorter than a cursor move
+                    for (int j = base + cursorCol; j < i; j++) appendChar(chars[j]);
+                    cursorCol = c;
+                } else if (r != cursorRow || c != cursorCol) {
+                    moveCursor(r, c);
+                    cursorRow = r;
+                    cursorCol = c;
+                }
+                if (attrs[i] != currentAttr) {
+                    currentAttr = attrs[i];
+                    append(SGR[currentAttr]);
+                }
+                appendChar(chars[i]);
+                cursorCol++;
+            }
+        }
+        System.arraycopy(chars, 0, shownChars, 0, chars.length);
+        System.arraycopy(attrs, 0, shownAttrs, 0, attrs.length);
+        fullRedraw = false;
+
+        if (outLength > 0) {
+            output.write(out, 0, outLength);
+            output.flush();
+        }
+    }
+
+    /**
+     * Bytes written by the last flush, for the status line.
+     */
+    public int getLastFrameBytes() { return outLength; }
+
+    /**
+     * Next key press, or -1 if none is pending. Escape sequences for the arrow keys are
+     * returned byte by byte.
+     */
+    public int readKey() throws IOException {
+        return input.available() > 0 ? input.read() : -1;
+    }
+
+    private boolean sameAttr(int from, int to, int attr) {
+        for (int j = from; j < to; j++) {
+            if (attrs[j] != attr) return false;
+        }
+        return true;
+    }
+
+    private void moveCursor(int row, int col) {
+        ensureCapacity(16);
+        out[outLength++] = 033;
+        out[outLength++] = '[';
+        appendInt(row + 1);
+        out[outLength++] = ';';
+        appendInt(col + 1);
+        out[outLength++] = 'H';
+    }
+
+    private void appendInt(int value) {
+        if (value >= 10) appendInt(value / 10);
+        out[outLength++] = (byte) ('0' + value % 10);
+    }
+
+    private void appendChar(char c) {
+        ensureCapacity(3);
+        if (c < 0x80) {
+            out[outLength++] = (byte) c;
+        } else if (c < 0x800) {
+            out[outLength++] = (byte) (0xc0 | c >> 6);
+            out[outLength++] = (byte) (0x80 | c & 0x3f);
+        } else {
+            out[outLength++] = (byte) (0xe0 | c >> 12);
+            out[outLength++] = (byte) (0x80 | c >> 6 & 0x3f);
+            out[outLength++] = (byte) (0x80 | c & 0x3f);
+        }
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, out, outLength, bytes.length);
+        outLength += bytes.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (outLength + extra > out.length) out = Arrays.copyOf(out, out.length * 2);
+    }
+
+    private static String stty(String arguments) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder("sh", "-c", "stty " + arguments + " < /dev/tty");
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        byte[] result = process.getInputStream().readAllBytes();
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new String(result, StandardCharsets.US_ASCII);
+    }
+
+    private static CLib loadLibc() {
+        try {
+            return Native.load("c", CLib.class);
+        } catch (UnsatisfiedLinkError | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
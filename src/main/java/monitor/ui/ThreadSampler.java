@@ -0,0 +1,206 @@
+package monitor.ui;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import oshi.software.os.linux.LinuxOperatingSystem;
+
+/**
+ * Samples {@code /proc/[pid]/task/*}{@code /stat} for the selected and pinned processes only,
+ * turning utime/stime tick deltas into per-thread CPU% with a short history.
+ */
+public class ThreadSampler {
+    private static final int HISTORY_SIZE = 30;
+    private static final int MAX_THREADS_SHOWN = 50;
+    private static final String SPARK = "▁▂▃▄▅▆▇█";
+
+    public static class ThreadInfo {
+        private final int tid;
+        private final String name;
+        private final String state;
+        private final double cpu;
+        private final String history;
+
+        public ThreadInfo(int tid, String name, String state, double cpu, String history) {
+            this.tid = tid;
+            this.name = name;
+            this.state = state;
+            this.cpu = cpu;
+            this.history = history;
+        }
+
+        public int getTid() { return tid; }
+        public String getName() { return name; }
+        public String getState() { return state; }
+        public double getCpu() { return cpu; }
+        public String getHistory() { return history; }
+    }
+
+    private static class ThreadState {
+        String name;
+        char state;
+        long ticks;
+        double cpu;
+        final float[] history = new float[HISTORY_SIZE];
+        int head;
+        int size;
+        boolean seen;
+    }
+
+    private static class ProcessThreads {
+        final Map<Integer, ThreadState> threads = new HashMap<>();
+        long timestamp;
+    }
+
+    // Pinned PIDs with the start time they were pinned for, so a reused PID is not sampled
+    private final Map<Integer, Long> pinned = new LinkedHashMap<>();
+    private final Map<Integer, ProcessThreads> processes = new HashMap<>();
+    private final ProcFileReader reader = new ProcFileReader(1024);
+    private final boolean linux = System.getProperty("os.name").toLowerCase().contains("linux");
+    private volatile int selectedPid = -1;
+
+    public synchronized void pin(int pid, long startTime) { pinned.put(pid, startTime); }
+    public synchronized void unpin(int pid) { pinned.remove(pid); }
+    public void setSelected(int pid) { selectedPid = pid; }
+    public int getSelected() { return selectedPid; }
+
+    public synchronized boolean isPinned(int pid, long startTime) {
+        Long pinnedStart = pinned.get(pid);
+        return pinnedStart != null && pinnedStart == startTime;
+    }
+
+    /**
+     * PIDs of pinned processes that are still running. Pins of processes that exited are
+     * dropped here.
+     */
+    public synchronized int[] getPinned() {
+        dropExitedPins();
+        return pinned.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Samples the threads of every selected or pinned process and returns the busiest threads
+     * of the selected one.
+     */
+    public synchronized List<ThreadInfo> sample() {
+        if (!linux) return new ArrayList<>();
+
+        dropExitedPins();
+        Set<Integer> targets = new LinkedHashSet<>(pinned.keySet());
+        int selected = selectedPid;
+        if (selected > 0) targets.add(selected);
+        processes.keySet().retainAll(targets);
+
+        double hz = LinuxOperatingSystem.getHz();
+        long now = System.currentTimeMillis();
+        for (Integer pid : targets) {
+            ProcessThreads pt = processes.computeIfAbsent(pid, k -> new ProcessThreads());
+            sampleProcess(pid, pt, now, hz);
+        }
+
+        ProcessThreads current = processes.get(selected);
+        List<ThreadInfo> result = new ArrayList<>();
+        if (current == null) return result;
+
+        for (Map.Entry<Integer, ThreadState> e : current.threads.entrySet()) {
+            ThreadState ts = e.getValue();
+            result.add(new ThreadInfo(e.getKey(), ts.name, describeState(ts.state), ts.cpu, sparkline(ts)));
+        }
+        result.sort((a, b) -> Double.compare(b.getCpu(), a.getCpu()));
+        return result.size() > MAX_THREADS_SHOWN ? new ArrayList<>(result.subList(0, MAX_THREADS_SHOWN)) : result;
+    }
+
+    private void dropExitedPins() {
+        for (Iterator<Map.Entry<Integer, Long>> it = pinned.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, Long> e = it.next();
+            boolean alive = linux && reader.read("/proc/" + e.getKey() + "/stat") && reader.lastIndexOf((byte) ')') > 0
+                    && ProcessLifecycleTracker.sameProcess(ProcessLifecycleTracker.statStartMillis(reader), e.getValue());
+            if (!alive) it.remove();
+        }
+    }
+
+    private void sampleProcess(int pid, ProcessThreads pt, long now, double hz) {
+        String[] tids = new File(ProcPaths.resolve("/proc/" + pid + "/task")).list();
+        if (tids == null) {
+            // Process exited
+            pt.threads.clear();
+            return;
+        }
+
+        double elapsedSeconds = pt.timestamp > 0 ? (now - pt.timestamp) / 1000.0 : 0;
+        for (ThreadState ts : pt.threads.values()) ts.seen = false;
+
+        for (String tidName : tids) {
+            if (!reader.read("/proc/" + pid + "/task/" + tidName + "/stat")) continue;
+            // comm may contain spaces and parentheses, so fields are counted from the last ')'
+            int open = reader.indexOf((byte) '(', 0);
+            int close = reader.lastIndexOf((byte) ')');
+            if (open < 0 || close < open) continue;
+
+            int tid = Integer.parseInt(tidName);
+            ThreadState ts = pt.threads.get(tid);
+            boolean isNew = ts == null;
+            if (isNew) {
+                ts = new ThreadState();
+                pt.threads.put(tid, ts);
+            }
+            if (ts.name == null || close != open + 1 + ts.name.length() || !reader.matches(open + 1, ts.name)) {
+                ts.name = reader.string(open + 1, close);
+            }
+            reader.seek(close + 1);
+            reader.skipFields(0);
+            ts.state = (char) reader.byteAt(reader.position());
+            // After the state come ppid .. cminflt, cmajflt, then utime and stime
+            reader.skipFields(11);
+            long utime = reader.nextLong();
+            long stime = reader.nextLong();
+            long ticks = utime + stime;
+
+            double cpu = 0.0;
+            if (!isNew && elapsedSeconds > 0) {
+                cpu = Math.max(0.0, (ticks - ts.ticks) / hz / elapsedSeconds * 100.0);
+            }
+            ts.ticks = ticks;
+            ts.cpu = cpu;
+            ts.history[ts.head] = (float) cpu;
+            ts.head = (ts.head + 1) % HISTORY_SIZE;
+            if (ts.size < HISTORY_SIZE) ts.size++;
+            ts.seen = true;
+        }
+
+        for (Iterator<ThreadState> it = pt.threads.values().iterator(); it.hasNext();) {
+            if (!it.next().seen) it.remove();
+        }
+        pt.timestamp = now;
+    }
+
+    private static String sparkline(ThreadState ts) {
+        StringBuilder sb = new StringBuilder(ts.size);
+        for (int i = ts.size; i > 0; i--) {
+            float v = ts.history[(ts.head - i + HISTORY_SIZE) % HISTORY_SIZE];
+            int idx = (int) Math.min(SPARK.length() - 1, Math.max(0, v / 100.0 * (SPARK.length() - 1)));
+            sb.append(SPARK.charAt(idx));
+        }
+        return sb.toString();
+    }
+
+    private static String describeState(char state) {
+        switch (state) {
+            case 'R': return "Running";
+            case 'S': return "Sleeping";
+            case 'D': return "Disk wait";
+            case 'Z': return "Zombie";
+            case 'T': return "Stopped";
+            case 't': return "Tracing stop";
+            case 'I': return "Idle";
+            default: return String.valueOf(state);
+        }
+    }
+}
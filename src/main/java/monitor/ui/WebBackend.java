@@ -0,0 +1,461 @@
+package monitor.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import monitor.ui.SystemInfoTable.FileSystemInfo;
+import monitor.ui.SystemInfoTable.ProcessInfo;
+import monitor.ui.SystemInfoTable.ResourceSnapshot;
+import monitor.ui.SystemInfoTable.StartupInfo;
+
+/**
+ * Optional HTTP backend for the React client in {@code web-version/client}, fed from the same
+ * snapshots the desktop UI renders. Each section is serialized once per tick and the cached
+ * bytes are shared by every REST request and every Server-Sent Events stream, so the number of
+ * open dashboards does not change collection or serialization cost.
+ *
+ * <p>{@code GET /api/stream} first sends a {@code full} event with the whole state, then
+ * {@code delta} events with only the processes that changed and the new history points.
+ */
+public class WebBackend {
+    private static final int MAX_HISTORY_POINTS = 60;
+    private static final String[] HISTORY_KEYS = {"cpu", "memory", "swap", "networkUp", "networkDown"};
+    // Events a stream may lag behind before it is dropped; a few seconds at the default refresh
+    private static final int CLIENT_QUEUE_EVENTS = 32;
+    private static final byte[] CLOSE = new byte[0];
+
+    /**
+     * One {@code /api/stream} connection. Events wait in a small bounded queue and are written
+     * by the connection's own handler thread, so a stalled client only ever delays itself.
+     */
+    private static final class Client {
+        final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_EVENTS);
+    }
+
+    private final HttpServer server;
+    private final ExecutorService httpExecutor;
+    // host:port values a same-origin request may carry in its Host header
+    private final List<String> allowedHosts = new ArrayList<>();
+    private final File staticRoot;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    // Per-tick serialization cache, guarded by this
+    private final Map<String, String> processJson = new LinkedHashMap<>();
+    private String processesJson = "[]";
+    private String resourcesJson = "null";
+    private String fileSystemJson = "[]";
+    private String startupJson = "[]";
+    private final Map<String, Deque<String>> history = new HashMap<>();
+
+    public WebBackend(String host, int port, File staticRoot) throws IOException {
+        this.staticRoot = staticRoot;
+        for (String key : HISTORY_KEYS) history.put(key, new ArrayDeque<>());
+
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        int boundPort = server.getAddress().getPort();
+        allowedHosts.add(hostPort(host, boundPort));
+        if (server.getAddress().getAddress().isLoopbackAddress()) {
+            for (String name : new String[] {"localhost", "127.0.0.1", "[::1]"}) allowedHosts.add(hostPort(name, boundPort));
+        }
+        // Cached, because every open stream holds a thread as its writer
+        httpExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "web-http");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(httpExecutor);
+        server.createContext("/api/stream", this::handleStream);
+        server.createContext("/api/system", this::handleApi);
+        server.createContext("/", this::handleStatic);
+    }
+
+    /**
+     * Starts the backend if {@code --web-port=N} was passed or {@code monitor.web.port} is set,
+     * otherwise returns null.
+     */
+    public static WebBackend fromArguments(List<String> args) {
+        String port = System.getProperty("monitor.web.port");
+        for (String arg : args) {
+            if (arg.startsWith("--web-port=")) port = arg.substring("--web-port=".length());
+        }
+        if (port == null) return null;
+
+        String host = System.getProperty("monitor.web.host", "127.0.0.1");
+        File root = new File(System.getProperty("monitor.web.root", "web-version/client/build"));
+        try {
+            WebBackend backend = new WebBackend(host, Integer.parseInt(port), root);
+            backend.start();
+            System.out.println("Web backend listening on http://" + host + ":" + port);
+            return backend;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Failed to start web backend: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        synchronized (this) {
+            for (Client client : clients) drop(client);
+        }
+        server.stop(0);
+        httpExecutor.shutdownNow();
+    }
+
+    public void publishProcesses(List<ProcessInfo> processes) {
+        JsonWriter delta = new JsonWriter(4096);
+        delta.beginObject().name("processes").beginObject().name("upsert").beginArray();
+        synchronized (this) {
+            Map<String, String> previous = new HashMap<>(processJson);
+            processJson.clear();
+            JsonWriter list = new JsonWriter(processes.size() * 200);
+            list.beginArray();
+            for (ProcessInfo p : processes) {
+                String json = processToJson(p);
+                processJson.put(p.getPid(), json);
+                list.raw(json);
+                if (!json.equals(previous.remove(p.getPid()))) delta.raw(json);
+            }
+            list.endArray();
+            processesJson = list.toString();
+            delta.endArray().name("remove").beginArray();
+            for (String pid : previous.keySet()) delta.value(pid);
+            delta.endArray().endObject();
+            delta.field("timestamp", System.currentTimeMillis()).endObject();
+            broadcast("delta", delta.toString());
+        }
+    }
+
+    public void publishResources(ResourceSnapshot snapshot, CpuCoreHistory cores) {
+        double[] values = {snapshot.cpuLoad, snapshot.memLoad, snapshot.swapLoad, snapshot.netUp, snapshot.netDown};
+        long now = System.currentTimeMillis();
+
+        JsonWriter resources = new JsonWriter();
+        resources.beginObject().name("resources").beginArray();
+        resourceRow(resources, "CPU", String.format("%.2f%%", snapshot.cpuLoad), "100%", snapshot.cpuLoad);
+        resourceRow(resources, "Memory", String.format("%.2f%%", snapshot.memLoad), "100%", snapshot.memLoad);
+        resourceRow(resources, "Swap", String.format("%.2f%%", snapshot.swapLoad), "100%", snapshot.swapLoad);
+        resourceRow(resources, "Network Up", String.format("%.2f KB/s", snapshot.netUp), "∞", 0);
+        resourceRow(resources, "Network Down", String.format("%.2f KB/s", snapshot.netDown), "∞", 0);
+        resources.endArray().name("cpuCores").beginArray();
+        for (int core = 0; core < cores.getCoreCount(); core++) {
+            float load = cores.latest(CpuCoreHistory.TOTAL, core);
+            resourceRow(resources, "Core " + core, String.format("%.2f%%", load), "100%", load);
+        }
+        resources.endArray().name("charts").beginObject();
+        for (int i = 0; i < HISTORY_KEYS.length; i++) resources.field(HISTORY_KEYS[i], values[i]);
+        resources.endObject().endObject();
+
+        JsonWriter delta = new JsonWriter();
+        delta.beginObject().name("resources").raw(resources.toString()).name("historyAppend").beginObject();
+        synchronized (this) {
+            resourcesJson = resources.toString();
+            for (int i = 0; i < HISTORY_KEYS.length; i++) {
+                String point = new JsonWriter(48).beginObject().field("timestamp", now).field("value", values[i]).endObject().toString();
+                Deque<String> points = history.get(HISTORY_KEYS[i]);
+                points.addLast(point);
+                if (points.size() > MAX_HISTORY_POINTS) points.removeFirst();
+                delta.name(HISTORY_KEYS[i]).raw(point);
+            }
+            delta.endObject().field("timestamp", now).endObject();
+            broadcast("delta", delta.toString());
+        }
+    }
+
+    public void publishFileSystems(List<FileSystemInfo> fileSystems) {
+        JsonWriter json = new JsonWriter();
+        json.beginArray();
+        for (FileSystemInfo fs : fileSystems) {
+            json.beginObject()
+                .field("mountPoint", fs.getMountPoint())
+                .field("name", fs.getName())
+                .field("type", fs.getType())
+                .field("totalSpace", fs.getTotalSpace())
+                .field("usedSpace", fs.getUsedSpace())
+                .field("usableSpace", fs.getUsableSpace())
+                .field("usedPercent", fs.getUsedPercent())
+                .endObject();
+        }
+        json.endArray();
+        String serialized = json.toString();
+        synchronized (this) {
+            // File systems rarely change, so only push when they do
+            if (serialized.equals(fileSystemJson)) return;
+            fileSystemJson = serialized;
+            broadcast("delta", "{\"fileSystem\":" + serialized + "}");
+        }
+    }
+
+    public void publishStartup(List<StartupInfo> startup) {
+        JsonWriter json = new JsonWriter();
+        json.beginArray();
+        for (StartupInfo s : startup) {
+            json.beginObject()
+                .field("name", s.getName())
+                .field("path", s.getPath())
+                .field("type", startupType(s))
+                .endObject();
+        }
+        json.endArray();
+        String serialized = json.toString();
+        synchronized (this) {
+            startupJson = serialized;
+            broadcast("delta", "{\"startup\":" + serialized + "}");
+        }
+    }
+
+    private synchronized String fullJson() {
+        JsonWriter json = new JsonWriter(processesJson.length() + 4096);
+        json.beginObject()
+            .name("processes").raw(processesJson)
+            .name("resources").raw(resourcesJson)
+            .name("fileSystem").raw(fileSystemJson)
+            .name("startup").raw(startupJson)
+            .name("history").beginObject();
+        for (String key : HISTORY_KEYS) {
+            json.name(key).beginArray();
+            for (String point : history.get(key)) json.raw(point);
+            json.endArray();
+        }
+        json.endObject().field("timestamp", System.currentTimeMillis()).endObject();
+        return json.toString();
+    }
+
+    /**
+     * Queues an event for every connected stream. Callers hold the lock, so events are queued in
+     * the same order the cached state changed. A client whose queue is full is dropped rather
+     * than buffered without bound; the browser's EventSource reconnects and gets a fresh
+     * {@code full} event.
+     */
+    private void broadcast(String event, String data) {
+        // Encoded once; every client gets the same bytes
+        byte[] bytes = ("event: " + event + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        for (Client client : clients) {
+            if (!client.queue.offer(bytes)) drop(client);
+        }
+    }
+
+    private void drop(Client client) {
+        clients.remove(client);
+        client.queue.clear();
+        client.queue.offer(CLOSE);
+    }
+
+    private void handleStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(200, 0);
+        Client client = new Client();
+        synchronized (this) {
+            // Queued before any delta, so the client never sees a delta older than its snapshot
+            client.queue.offer(("event: full\ndata: " + fullJson() + "\n\n").getBytes(StandardCharsets.UTF_8));
+            clients.add(client);
+        }
+        // This handler thread is the client's writer until it disconnects or is dropped
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (byte[] event = client.queue.take(); event != CLOSE; event = client.queue.take()) {
+                out.write(event);
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            clients.remove(client);
+            exchange.close();
+        }
+    }
+
+    private void handleApi(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        String body;
+        int status = 200;
+
+        if ("POST".equals(method) && path.matches("/api/system/processes/\\d+/kill")) {
+            if (!isSameOrigin(exchange)) {
+                status = 403;
+                body = "{\"error\":\"Cross-origin request refused\"}";
+            } else {
+                body = killProcess(path.split("/")[4]);
+            }
+        } else if (!"GET".equals(method)) {
+            status = 405;
+            body = "{\"error\":\"Method not allowed\"}";
+        } else {
+            switch (path) {
+                case "/api/system":
+                case "/api/system/":
+                    body = fullJson();
+                    break;
+                case "/api/system/processes":
+                    synchronized (this) { body = processesJson; }
+                    break;
+                case "/api/system/resources":
+                    synchronized (this) { body = resourcesJson; }
+                    break;
+                case "/api/system/filesystem":
+                    synchronized (this) { body = fileSystemJson; }
+                    break;
+                case "/api/system/startup":
+                    synchronized (this) { body = startupJson; }
+                    break;
+                default:
+                    status = 404;
+                    body = "{\"error\":\"Not found\"}";
+            }
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handleStatic(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        File file = new File(staticRoot, path.substring(1));
+        // Single page app: unknown paths and directory traversal both fall back to index.html
+        if (!file.isFile() || !isUnderStaticRoot(file)) {
+            file = new File(staticRoot, "index.html");
+        }
+        if (!file.isFile()) {
+            byte[] msg = ("Client build not found in " + staticRoot.getAbsolutePath()
+                    + ". Run npm run build in web-version/client.").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, msg.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(msg);
+            }
+            return;
+        }
+
+        String contentType = Files.probeContentType(file.toPath());
+        if (contentType == null && file.getName().endsWith(".js")) contentType = "application/javascript";
+        if (contentType != null) exchange.getResponseHeaders().add("Content-Type", contentType);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private boolean isUnderStaticRoot(File file) {
+        // Path.startsWith compares whole names, so build-old is not inside build
+        try {
+            return file.toPath().toRealPath().startsWith(staticRoot.toPath().toRealPath());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A browser sends Origin with every POST, so a kill must carry one that names this server,
+     * and Host must too. A cross-site page cannot forge either, and a DNS-rebound name fails
+     * the Host check.
+     */
+    private boolean isSameOrigin(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        String origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (host == null || origin == null) return false;
+        host = host.toLowerCase(Locale.ROOT);
+        return allowedHosts.contains(host) && origin.toLowerCase(Locale.ROOT).equals("http://" + host);
+    }
+
+    private String killProcess(String pidText) {
+        int pid;
+        try {
+            pid = Integer.parseInt(pidText);
+        } catch (NumberFormatException e) {
+            pid = -1;
+        }
+        boolean listed;
+        synchronized (this) {
+            listed = processJson.containsKey(String.valueOf(pid));
+        }
+        // 0 would be our own process group; only processes the client was shown may be killed
+        if (pid <= 0 || !listed) {
+            return new JsonWriter().beginObject().field("success", false)
+                    .field("error", "No such process: " + pidText).endObject().toString();
+        }
+        // SIGTERM, like the Express backend's plain kill
+        boolean sent = ProcessHandle.of(pid).map(ProcessHandle::destroy).orElse(false);
+        if (!sent) {
+            return new JsonWriter().beginObject().field("success", false)
+                    .field("error", "Could not signal process " + pid).endObject().toString();
+        }
+        return new JsonWriter().beginObject().field("success", true)
+                .field("message", "Process " + pid + " killed successfully").endObject().toString();
+    }
+
+    private static String hostPort(String host, int port) {
+        // Host headers carry IPv6 literals in brackets
+        if (host.indexOf(':') >= 0 && !host.startsWith("[")) host = "[" + host + "]";
+        return host.toLowerCase(Locale.ROOT) + ":" + port;
+    }
+
+    private static String processToJson(ProcessInfo p) {
+        return new JsonWriter(256).beginObject()
+            .field("pid", p.getPid())
+            .field("name", p.getName())
+            .field("user", p.getUser())
+            .field("cpu", p.getCpu())
+            .field("cpuValue", p.getCpuValue())
+            .field("rss", p.getRss())
+            .field("rssValue", p.getRssValue())
+            .field("virtualMem", p.getVirtualMem())
+            .field("virtualMemValue", p.getVirtualMemValue())
+            .field("diskRead", p.getDiskRead())
+            .field("diskReadValue", p.getDiskReadValue())
+            .field("pss", p.getPss())
+            .field("uss", p.getUss())
+            .field("connections", p.getConnections())
+            .field("heap", p.getHeap())
+            .field("gcPercent", p.getGcPercent())
+            .endObject().toString();
+    }
+
+    private static void resourceRow(JsonWriter json, String name, String used, String total, double percent) {
+        json.beginObject()
+            .field("name", name)
+            .field("status", used)
+            .field("used", used)
+            .field("total", total)
+            .field("usedPercent", percent)
+            .endObject();
+    }
+
+    private static String startupType(StartupInfo s) {
+        String name = s.getName();
+        if (name.endsWith(".service")) return "systemd";
+        if (name.startsWith("Cron") || name.startsWith("System Cron")) return "cron";
+        if (name.startsWith("rc.local")) return "rc.local";
+        return "autostart";
+    }
+}
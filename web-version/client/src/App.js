@@ -16,6 +16,32 @@ import ResourcesTab from './components/ResourcesTab';
 import FileSystemTab from './components/FileSystemTab';
 import StartupTab from './components/StartupTab';
 
+const MAX_HISTORY_POINTS = 60;
+
+// Applies a delta event from the Java backend's /api/stream to the current state
+const applyDelta = (current, delta) => {
+  if (!current) return current;
+  const next = { ...current, timestamp: delta.timestamp || current.timestamp };
+
+  if (delta.processes) {
+    const byPid = new Map(current.processes.map(p => [p.pid, p]));
+    delta.processes.remove.forEach(pid => byPid.delete(pid));
+    delta.processes.upsert.forEach(p => byPid.set(p.pid, p));
+    next.processes = Array.from(byPid.values()).sort((a, b) => b.cpuValue - a.cpuValue);
+  }
+  if (delta.resources) next.resources = delta.resources;
+  if (delta.fileSystem) next.fileSystem = delta.fileSystem;
+  if (delta.startup) next.startup = delta.startup;
+  if (delta.historyAppend) {
+    const history = { ...current.history };
+    Object.entries(delta.historyAppend).forEach(([key, point]) => {
+      history[key] = [...(history[key] || []), point].slice(-MAX_HISTORY_POINTS);
+    });
+    next.history = history;
+  }
+  return next;
+};
+
 const tabs = [
   { id: 'processes', name: 'Processes', icon: Users },
   { id: 'resources', name: 'Resources', icon: Activity },
@@ -28,8 +54,43 @@ function App() {
   const [systemData, setSystemData] = useState(null);
   const [socket, setSocket] = useState(null);
   const [connected, setConnected] = useState(false);
+  const [streaming, setStreaming] = useState(false);
 
   useEffect(() => {
+    // Prefer the Java backend's push stream; fall back to Socket.IO on the Node server
+    let newSocket = null;
+    const source = new EventSource('/api/stream');
+    let opened = false;
+
+    source.addEventListener('full', (event) => {
+      opened = true;
+      setStreaming(true);
+      setConnected(true);
+      setSystemData(JSON.parse(event.data));
+    });
+
+    source.addEventListener('delta', (event) => {
+      const delta = JSON.parse(event.data);
+      setSystemData(current => applyDelta(current, delta));
+    });
+
+    source.onerror = () => {
+      if (opened) {
+        // EventSource reconnects on its own and gets a fresh full snapshot
+        setConnected(false);
+        return;
+      }
+      source.close();
+      newSocket = connectSocket();
+    };
+
+    return () => {
+      source.close();
+      if (newSocket) newSocket.close();
+    };
+  }, []);
+
+  const connectSocket = () => {
     const newSocket = io(process.env.NODE_ENV === 'production' ? window.location.origin : 'http://localhost:5000');
     
     newSocket.on('connect', () => {
@@ -47,14 +108,13 @@ function App() {
     });
 
     setSocket(newSocket);
-
-    return () => {
-      newSocket.close();
-    };
-  }, []);
+    return newSocket;
+  };
 
   const killProcess = (pid) => {
-    if (socket) {
+    if (streaming) {
+      fetch(`/api/system/processes/${pid}/kill`, { method: 'POST' });
+    } else if (socket) {
       socket.emit('killProcess', pid);
     }
   };